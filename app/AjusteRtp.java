@@ -0,0 +1,501 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Contagens acumuladas de giros de uma combinação (tamanho, símbolos, curingas).
+ * O multiplicador não precisa ser simulado: como o prêmio da vitória é
+ * {@code aposta * multiplicador} e o do bônus é a própria aposta, o RTP de
+ * qualquer multiplicador sai das mesmas contagens.
+ */
+final class AmostraRtp {
+    private final int tamanho;
+    private final int simbolos;
+    private final int coringas;
+    private long giros;
+    private long vitorias;
+    private long bonus; // Bônus sem vitória (os únicos pagos).
+    private long partes; // Partes já simuladas: numeram os fluxos aleatórios das próximas.
+
+    AmostraRtp(int tamanho, int simbolos, int coringas, long giros, long vitorias, long bonus, long partes) {
+        this.tamanho = tamanho;
+        this.simbolos = simbolos;
+        this.coringas = coringas;
+        this.giros = giros;
+        this.vitorias = vitorias;
+        this.bonus = bonus;
+        this.partes = partes;
+    }
+
+    static String chave(int tamanho, int simbolos, int coringas) {
+        return tamanho + "," + simbolos + "," + coringas;
+    }
+
+    String getChave() {
+        return chave(tamanho, simbolos, coringas);
+    }
+
+    // Getters para os atributos.
+    public int getTamanho() {
+        return tamanho;
+    }
+
+    public int getSimbolos() {
+        return simbolos;
+    }
+
+    public int getCoringas() {
+        return coringas;
+    }
+
+    public long getGiros() {
+        return giros;
+    }
+
+    public long getVitorias() {
+        return vitorias;
+    }
+
+    public long getBonus() {
+        return bonus;
+    }
+
+    public long getPartes() {
+        return partes;
+    }
+
+    /**
+     * Reserva os índices das próximas partes a simular. Chamado antes de dividir a
+     * rodada entre as threads, então os índices não dependem da ordem de execução.
+     *
+     * @param quantidade Quantas partes serão simuladas.
+     * @return O índice da primeira parte reservada.
+     */
+    long reservarPartes(int quantidade) {
+        long primeira = partes;
+        partes += quantidade;
+        return primeira;
+    }
+
+    synchronized void somar(long giros, long vitorias, long bonus) {
+        this.giros += giros;
+        this.vitorias += vitorias;
+        this.bonus += bonus;
+    }
+
+    /**
+     * Estima o RTP (retorno ao jogador por unidade apostada) com um multiplicador.
+     *
+     * @param multiplicador O multiplicador de prêmio da vitória.
+     * @return O RTP estimado.
+     */
+    public double rtp(int multiplicador) {
+        return giros == 0 ? 0 : (multiplicador * (double) vitorias + bonus) / giros;
+    }
+
+    /**
+     * Erro padrão da estimativa do RTP. O retorno de um giro vale o multiplicador,
+     * 1 ou 0, então sua variância sai das probabilidades de vitória e de bônus.
+     *
+     * @param multiplicador O multiplicador de prêmio da vitória.
+     * @return O erro padrão (infinito sem giros).
+     */
+    public double erroPadrao(int multiplicador) {
+        if (giros == 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double pv = (double) vitorias / giros;
+        double pb = (double) bonus / giros;
+        double variancia = (double) multiplicador * multiplicador * pv * (1 - pv) + pb * (1 - pb)
+                - 2.0 * multiplicador * pv * pb;
+        return Math.sqrt(Math.max(variancia, 0) / giros);
+    }
+}
+
+/**
+ * Ferramenta de ajuste da vantagem da casa. Para um tamanho de tabuleiro, procura
+ * combinações de curingas, quantidade de símbolos, multiplicador e faixa de aposta
+ * cujo RTP fica dentro de uma tolerância do alvo.
+ *
+ * <p>
+ * As combinações são simuladas com o {@link MotorGiros} em lotes paralelos. Após cada
+ * lote, cada multiplicador é aceito quando o intervalo de confiança inteiro cabe na
+ * tolerância, descartado quando não a toca, e só as combinações com multiplicadores
+ * ainda indecisos voltam a ser simuladas. As contagens ficam em um arquivo de cache,
+ * então execuções seguintes partem dos giros já feitos. A faixa de aposta não altera
+ * o RTP (os prêmios são proporcionais à aposta); ela limita o maior prêmio possível.
+ *
+ * <p>
+ * Uso: {@code java AjusteRtp --tamanho=3 --alvo=0.95 --tolerancia=0.01 --coringas=0-3
+ * --simbolos=5-13 --multiplicadores=1-200 --apostas=1-10,10-30 --premio-maximo=2000}
+ */
+public class AjusteRtp {
+    private static final String CABECALHO_CACHE = "versao,tamanho,simbolos,coringas,giros,vitorias,bonus,partes";
+    private static final int PARTES_POR_RODADA = 32; // Fixo: o resultado não depende do número de núcleos.
+
+    private final int tamanho;
+    private final double alvo;
+    private final double tolerancia;
+    private final double z; // Quantil normal da confiança (2,576 ≈ 99%).
+    private final int[] coringas;
+    private final int[] simbolos;
+    private final int[] multiplicadores;
+    private final List<int[]> faixasAposta;
+    private final long premioMaximo; // Em reais; 0 não limita.
+    private final long girosMaximos; // Por combinação, somando o cache.
+    private final long lote; // Giros por combinação a cada rodada de simulação.
+    private final long semente;
+    private final Map<String, AmostraRtp> amostras = new LinkedHashMap<>();
+
+    /**
+     * Construtor da classe AjusteRtp.
+     *
+     * @param tamanho         Tamanho do tabuleiro.
+     * @param alvo            RTP desejado (ex: 0.95).
+     * @param tolerancia      Distância máxima aceita do alvo.
+     * @param z               Quantil normal do intervalo de confiança.
+     * @param coringas        Faixa {mínimo, máximo} de curingas.
+     * @param simbolos        Faixa {mínimo, máximo} da quantidade de símbolos.
+     * @param multiplicadores Faixa {mínimo, máximo} do multiplicador de prêmio.
+     * @param faixasAposta    Faixas {mínimo, máximo} de aposta candidatas.
+     * @param premioMaximo    Maior prêmio permitido em reais (0 para não limitar).
+     * @param girosMaximos    Giros máximos por combinação.
+     * @param lote            Giros por combinação a cada rodada.
+     * @param semente         Semente das simulações.
+     * @throws RuntimeException Se algum parâmetro for inválido.
+     */
+    public AjusteRtp(int tamanho, double alvo, double tolerancia, double z, int[] coringas, int[] simbolos,
+            int[] multiplicadores, List<int[]> faixasAposta, long premioMaximo, long girosMaximos, long lote,
+            long semente) {
+        if (tamanho < 2 || tamanho > 8) {
+            throw new RuntimeException("O tamanho do tabuleiro deve estar entre 2 e 8.");
+        }
+        if (simbolos[0] < 2 || simbolos[1] > CacaNiquel.SIMBOLOS.size() || coringas[0] < 0
+                || coringas[1] > tamanho * tamanho || multiplicadores[0] < 1 || tolerancia <= 0 || lote <= 0) {
+            throw new RuntimeException("Parâmetros de busca inválidos.");
+        }
+        this.tamanho = tamanho;
+        this.alvo = alvo;
+        this.tolerancia = tolerancia;
+        this.z = z;
+        this.coringas = coringas;
+        this.simbolos = simbolos;
+        this.multiplicadores = multiplicadores;
+        this.faixasAposta = faixasAposta;
+        this.premioMaximo = premioMaximo;
+        this.girosMaximos = girosMaximos;
+        this.lote = lote;
+        this.semente = semente;
+    }
+
+    /**
+     * Carrega as contagens de execuções anteriores. Linhas de outra versão do motor são ignoradas.
+     *
+     * @param caminho O arquivo de cache.
+     */
+    public void carregarCache(String caminho) {
+        File arquivo = new File(caminho);
+        if (!arquivo.exists()) {
+            return;
+        }
+        try (BufferedReader reader = new BufferedReader(new FileReader(arquivo))) {
+            reader.readLine(); // Cabeçalho.
+            String linha;
+            while ((linha = reader.readLine()) != null) {
+                String[] p = linha.split(",");
+                if ((p.length != 7 && p.length != 8) || Integer.parseInt(p[0]) != MotorGiros.VERSAO) {
+                    continue;
+                }
+                AmostraRtp amostra = new AmostraRtp(Integer.parseInt(p[1]), Integer.parseInt(p[2]),
+                        Integer.parseInt(p[3]), Long.parseLong(p[4]), Long.parseLong(p[5]), Long.parseLong(p[6]),
+                        p.length == 8 ? Long.parseLong(p[7]) : 0); // Cache sem a coluna de partes começa do zero.
+                amostras.put(amostra.getChave(), amostra);
+            }
+        } catch (IOException | NumberFormatException e) {
+            System.err.println("Erro ao carregar cache de RTP: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Grava as contagens de todas as combinações conhecidas (inclusive de outros tamanhos).
+     *
+     * @param caminho O arquivo de cache.
+     */
+    public void salvarCache(String caminho) {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(caminho))) {
+            writer.write(CABECALHO_CACHE);
+            writer.write('\n');
+            for (AmostraRtp a : amostras.values()) {
+                writer.write(MotorGiros.VERSAO + "," + a.getChave() + "," + a.getGiros() + "," + a.getVitorias()
+                        + "," + a.getBonus() + "," + a.getPartes() + "\n");
+            }
+        } catch (IOException e) {
+            System.err.println("Erro ao salvar cache de RTP: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Simula até que cada multiplicador de cada combinação seja aceito ou descartado,
+     * ou até o limite de giros.
+     *
+     * @return As combinações do espaço de busca, com suas contagens.
+     */
+    public List<AmostraRtp> buscar() {
+        List<AmostraRtp> espaco = new ArrayList<>();
+        for (int s = simbolos[0]; s <= simbolos[1]; s++) {
+            for (int c = coringas[0]; c <= coringas[1]; c++) {
+                AmostraRtp amostra = amostras.get(AmostraRtp.chave(tamanho, s, c));
+                if (amostra == null) {
+                    amostra = new AmostraRtp(tamanho, s, c, 0, 0, 0, 0);
+                    amostras.put(amostra.getChave(), amostra);
+                }
+                espaco.add(amostra);
+            }
+        }
+
+        for (int rodada = 1;; rodada++) {
+            List<AmostraRtp> ativas = new ArrayList<>();
+            for (AmostraRtp a : espaco) {
+                if (a.getGiros() < girosMaximos && temIndecisos(a)) {
+                    ativas.add(a);
+                }
+            }
+            if (ativas.isEmpty()) {
+                break;
+            }
+            // Cada combinação ativa é dividida em partes para ocupar todos os núcleos.
+            int partes = PARTES_POR_RODADA;
+            long[] girosPorParte = new long[ativas.size()];
+            long[] primeiraParte = new long[ativas.size()];
+            long total = 0;
+            for (int i = 0; i < ativas.size(); i++) {
+                girosPorParte[i] = Math.max(1, Math.min(lote, girosMaximos - ativas.get(i).getGiros()) / partes);
+                primeiraParte[i] = ativas.get(i).reservarPartes(partes);
+                total += girosPorParte[i] * partes;
+            }
+            long inicio = System.nanoTime();
+            IntStream.range(0, ativas.size() * partes).parallel()
+                    .forEach(t -> simular(ativas.get(t / partes), girosPorParte[t / partes],
+                            primeiraParte[t / partes] + t % partes));
+            System.out.printf(Locale.ROOT, "Rodada %d: %d combinações ativas, %.1f M giros/s%n", rodada,
+                    ativas.size(), total / ((System.nanoTime() - inicio) / 1e9) / 1e6);
+        }
+        return espaco;
+    }
+
+    private void simular(AmostraRtp amostra, long giros, long indiceParte) {
+        // A semente sai só de (semente, combinação, índice da parte): a mesma execução se repete
+        // com a mesma semente, e continuar do cache usa índices novos, sem repetir giros.
+        long s = misturar(semente ^ misturar(amostra.getChave().hashCode()));
+        s = misturar(s + indiceParte);
+        FonteSorteio random = new SplittableRandom(s)::nextInt;
+        MotorGiros motor = new MotorGiros(amostra.getTamanho(), amostra.getSimbolos(), amostra.getCoringas());
+        byte[] tabuleiro = motor.novoTabuleiro();
+        long vitorias = 0;
+        long bonus = 0;
+        for (long i = 0; i < giros; i++) {
+            int resultado = motor.girar(random, tabuleiro);
+            if (resultado == MotorGiros.VITORIA) {
+                vitorias++;
+            } else if (resultado == MotorGiros.BONUS) {
+                bonus++;
+            }
+        }
+        amostra.somar(giros, vitorias, bonus);
+    }
+
+    /**
+     * Finalizador do SplitMix64: bijetivo, então índices diferentes dão sementes diferentes.
+     */
+    private static long misturar(long x) {
+        x = (x ^ (x >>> 30)) * 0xBF58476D1CE4E5B9L;
+        x = (x ^ (x >>> 27)) * 0x94D049BB133111EBL;
+        return x ^ (x >>> 31);
+    }
+
+    private boolean temIndecisos(AmostraRtp a) {
+        for (int m = multiplicadores[0]; m <= multiplicadores[1]; m++) {
+            if (classificar(a, m) == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Classifica um multiplicador pelo intervalo de confiança do RTP.
+     *
+     * @return 1 se aceito, -1 se descartado, 0 se ainda indeciso.
+     */
+    private int classificar(AmostraRtp a, int multiplicador) {
+        double distancia = Math.abs(a.rtp(multiplicador) - alvo);
+        double margem = z * a.erroPadrao(multiplicador);
+        if (distancia + margem <= tolerancia) {
+            return 1;
+        }
+        if (distancia - margem > tolerancia) {
+            return -1;
+        }
+        return 0;
+    }
+
+    /**
+     * Lista as configurações aceitas, da mais próxima do alvo para a mais distante.
+     *
+     * @param espaco As combinações simuladas por {@link #buscar()}.
+     * @return Cada configuração como {símbolos, curingas, multiplicador, apostaMin, apostaMax}.
+     */
+    public List<int[]> aceitas(List<AmostraRtp> espaco) {
+        List<int[]> resultado = new ArrayList<>();
+        Map<int[], Double> distancias = new java.util.IdentityHashMap<>();
+        for (AmostraRtp a : espaco) {
+            for (int m = multiplicadores[0]; m <= multiplicadores[1]; m++) {
+                if (classificar(a, m) != 1) {
+                    continue;
+                }
+                for (int[] faixa : faixasAposta) {
+                    if (premioMaximo > 0 && (long) faixa[1] * m > premioMaximo) {
+                        continue; // O prêmio da aposta máxima ultrapassaria o limite.
+                    }
+                    int[] config = { a.getSimbolos(), a.getCoringas(), m, faixa[0], faixa[1] };
+                    resultado.add(config);
+                    distancias.put(config, Math.abs(a.rtp(m) - alvo));
+                }
+            }
+        }
+        resultado.sort(Comparator.comparingDouble(distancias::get));
+        return resultado;
+    }
+
+    /**
+     * Retorna as contagens de uma combinação.
+     *
+     * @param simbolos Quantidade de símbolos.
+     * @param coringas Quantidade de curingas.
+     * @return A amostra, ou null se ainda não foi simulada.
+     */
+    public AmostraRtp amostra(int simbolos, int coringas) {
+        return amostras.get(AmostraRtp.chave(tamanho, simbolos, coringas));
+    }
+
+    private static int[] faixa(String texto) {
+        String[] p = texto.split("-");
+        int min = Integer.parseInt(p[0]);
+        return new int[] { min, p.length > 1 ? Integer.parseInt(p[1]) : min };
+    }
+
+    /**
+     * Método principal da ferramenta de ajuste.
+     *
+     * @param args As opções no formato {@code --nome=valor}.
+     */
+    public static void main(String[] args) {
+        int tamanho = 3;
+        double alvo = 0.95;
+        double tolerancia = 0.01;
+        double z = 2.576;
+        int[] coringas = { 0, 3 };
+        int[] simbolos = { 5, CacaNiquel.SIMBOLOS.size() };
+        int[] multiplicadores = { 1, 200 };
+        List<int[]> faixasAposta = new ArrayList<>();
+        long premioMaximo = 0;
+        long girosMaximos = 20_000_000;
+        long lote = 1_000_000;
+        long semente = System.nanoTime();
+        String cache = "ajuste-rtp.cache";
+        int limite = 20;
+
+        for (String arg : args) {
+            String[] partes = arg.split("=", 2);
+            if (partes.length != 2) {
+                System.err.println("Opção inválida: " + arg);
+                return;
+            }
+            switch (partes[0]) {
+                case "--tamanho":
+                    tamanho = Integer.parseInt(partes[1]);
+                    break;
+                case "--alvo":
+                    alvo = Double.parseDouble(partes[1]);
+                    break;
+                case "--tolerancia":
+                    tolerancia = Double.parseDouble(partes[1]);
+                    break;
+                case "--z":
+                    z = Double.parseDouble(partes[1]);
+                    break;
+                case "--coringas":
+                    coringas = faixa(partes[1]);
+                    break;
+                case "--simbolos":
+                    simbolos = faixa(partes[1]);
+                    break;
+                case "--multiplicadores":
+                    multiplicadores = faixa(partes[1]);
+                    break;
+                case "--apostas":
+                    for (String f : partes[1].split(",")) {
+                        faixasAposta.add(faixa(f));
+                    }
+                    break;
+                case "--premio-maximo":
+                    premioMaximo = Long.parseLong(partes[1]);
+                    break;
+                case "--giros-max":
+                    girosMaximos = Long.parseLong(partes[1]);
+                    break;
+                case "--lote":
+                    lote = Long.parseLong(partes[1]);
+                    break;
+                case "--semente":
+                    semente = Long.parseLong(partes[1]);
+                    break;
+                case "--cache":
+                    cache = partes[1];
+                    break;
+                case "--limite":
+                    limite = Integer.parseInt(partes[1]);
+                    break;
+                default:
+                    System.err.println("Opção desconhecida: " + partes[0]);
+                    return;
+            }
+        }
+        if (faixasAposta.isEmpty()) {
+            faixasAposta.add(new int[] { 1, 10 });
+        }
+
+        AjusteRtp ajuste = new AjusteRtp(tamanho, alvo, tolerancia, z, coringas, simbolos, multiplicadores,
+                faixasAposta, premioMaximo, girosMaximos, lote, semente);
+        ajuste.carregarCache(cache);
+        List<AmostraRtp> espaco = ajuste.buscar();
+        ajuste.salvarCache(cache);
+
+        List<int[]> aceitas = ajuste.aceitas(espaco);
+        System.out.printf(Locale.ROOT, "%nTamanho %d, alvo %.4f ± %.4f: %d configurações aceitas%n", tamanho, alvo,
+                tolerancia, aceitas.size());
+        System.out.printf("%8s %8s %14s %10s %10s %12s %12s%n", "Símbolos", "Curingas", "Multiplicador", "Apostas",
+                "RTP", "± IC", "Giros");
+        for (int[] c : aceitas.subList(0, Math.min(limite, aceitas.size()))) {
+            AmostraRtp a = ajuste.amostra(c[0], c[1]);
+            System.out.printf(Locale.ROOT, "%8d %8d %14d %10s %10.4f %12.4f %12d%n", c[0], c[1], c[2],
+                    c[3] + "-" + c[4], a.rtp(c[2]), z * a.erroPadrao(c[2]), a.getGiros());
+        }
+        if (!aceitas.isEmpty()) {
+            int[] c = aceitas.get(0);
+            System.out.printf("%nConstrutor sugerido: super(%d, %d, %d, %d, %d, %d);%n", tamanho, c[1], c[3], c[4],
+                    c[2], c[0]);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+/**
+ * Alteração de um {@link EstadoJogador}: cria o novo estado a partir do atual.
+ */
+@FunctionalInterface
+interface AlteracaoEstado {
+    /**
+     * @param atual  O estado atual.
+     * @param versao A versão a gravar no novo estado.
+     * @return O novo estado.
+     * @throws RuntimeException Se a alteração não for permitida (ex: saldo insuficiente).
+     */
+    EstadoJogador aplicar(EstadoJogador atual, long versao);
+}
@@ -0,0 +1,115 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Resume uma gravação do JDK Flight Recorder em tabelas de latência por operação,
+ * a partir dos eventos definidos em {@code EventosJfr.java}. As rodadas são separadas
+ * por slot e resultado, as autenticações por sucesso e a persistência por operação.
+ *
+ * <p>
+ * Uso: {@code java AnalisadorJfr <arquivo.jfr>}
+ */
+public class AnalisadorJfr {
+
+    /**
+     * Totais de uma operação: latências e, para a persistência, linhas e bytes.
+     */
+    private static final class Resumo {
+        final HistogramaLatencia latencias = new HistogramaLatencia();
+        long totalNanos;
+        long linhas;
+        long bytes;
+    }
+
+    private final Map<String, Resumo> resumos = new TreeMap<>(); // Ordenados pelo nome da operação.
+    private long ignorados;
+
+    /**
+     * Lê todos os eventos do jogo de uma gravação.
+     *
+     * @param arquivo O arquivo .jfr.
+     * @throws IOException Se o arquivo não puder ser lido.
+     */
+    public void ler(Path arquivo) throws IOException {
+        try (RecordingFile gravacao = new RecordingFile(arquivo)) {
+            while (gravacao.hasMoreEvents()) {
+                RecordedEvent evento = gravacao.readEvent();
+                String operacao = operacao(evento);
+                if (operacao == null) {
+                    ignorados++;
+                    continue;
+                }
+                Resumo resumo = resumos.computeIfAbsent(operacao, k -> new Resumo());
+                long nanos = evento.getDuration().toNanos();
+                resumo.latencias.registrar(nanos, true);
+                resumo.totalNanos += nanos;
+                if (evento.hasField("linhas")) {
+                    resumo.linhas += evento.getLong("linhas");
+                    resumo.bytes += evento.getLong("bytes");
+                }
+            }
+        }
+    }
+
+    /**
+     * Identifica a linha da tabela de um evento.
+     *
+     * @param evento O evento lido.
+     * @return O nome da operação, ou null se o evento não for do jogo.
+     */
+    private static String operacao(RecordedEvent evento) {
+        switch (evento.getEventType().getName()) {
+            case EventoRodada.NOME:
+                return "rodada " + evento.getString("slot") + " " + evento.getString("resultado");
+            case EventoAutenticacao.NOME:
+                return evento.getBoolean("sucesso") ? "autenticar ok" : "autenticar falha";
+            case EventoAtrasoLogin.NOME:
+                return evento.getBoolean("interrompido") ? "atraso login interrompido" : "atraso login";
+            case EventoPersistenciaCsv.NOME:
+                return "csv " + evento.getString("operacao");
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Exibe a tabela de latências (em milissegundos) de cada operação.
+     */
+    public void exibir() {
+        System.out.printf("%-28s %8s %10s %10s %10s %10s %10s %10s %12s%n", "Operação", "Eventos", "p50 (ms)",
+                "p90 (ms)", "p99 (ms)", "max (ms)", "total (ms)", "linhas", "bytes");
+        for (Map.Entry<String, Resumo> entrada : resumos.entrySet()) {
+            Resumo r = entrada.getValue();
+            HistogramaLatencia h = r.latencias;
+            System.out.printf(Locale.ROOT, "%-28s %8d %10.3f %10.3f %10.3f %10.3f %10.1f %10d %12d%n",
+                    entrada.getKey(), h.getTotal(), h.percentil(50) / 1e6, h.percentil(90) / 1e6,
+                    h.percentil(99) / 1e6, h.maximo() / 1e6, r.totalNanos / 1e6, r.linhas, r.bytes);
+        }
+        if (resumos.isEmpty()) {
+            System.out.println("Nenhum evento do jogo na gravação (verifique os limiares dos eventos cassino.*).");
+        }
+        System.out.printf("Outros eventos ignorados: %d%n", ignorados);
+    }
+
+    /**
+     * Método principal do analisador.
+     *
+     * @param args O arquivo .jfr.
+     * @throws IOException Se o arquivo não puder ser lido.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Uso: java AnalisadorJfr <arquivo.jfr>");
+            return;
+        }
+        AnalisadorJfr analisador = new AnalisadorJfr();
+        analisador.ler(Paths.get(args[0]));
+        analisador.exibir();
+    }
+}
@@ -0,0 +1,105 @@
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Anel de hash consistente que decide qual nó é dono de cada email.
+ * Cada nó ocupa vários pontos virtuais do anel; um email pertence ao primeiro
+ * ponto no sentido horário a partir do seu hash. Ao adicionar um nó, só mudam de
+ * dono os emails que caem nos arcos que ele passa a ocupar.
+ */
+class AnelConsistente {
+    public static final int PONTOS_VIRTUAIS_PADRAO = 160;
+
+    private final TreeMap<Long, String> anel = new TreeMap<>();
+    private final List<String> nos = new ArrayList<>();
+    private final int pontosVirtuais;
+
+    /**
+     * Construtor da classe AnelConsistente.
+     *
+     * @param nos            Os identificadores dos nós (ex: "localhost:7001").
+     * @param pontosVirtuais Quantos pontos cada nó ocupa no anel.
+     */
+    public AnelConsistente(Collection<String> nos, int pontosVirtuais) {
+        this.pontosVirtuais = pontosVirtuais;
+        for (String no : nos) {
+            adicionar(no);
+        }
+    }
+
+    /**
+     * Adiciona um nó ao anel.
+     *
+     * @param no O identificador do nó.
+     */
+    public void adicionar(String no) {
+        if (nos.contains(no)) {
+            return;
+        }
+        nos.add(no);
+        for (int i = 0; i < pontosVirtuais; i++) {
+            anel.put(hash(no + "#" + i), no);
+        }
+    }
+
+    /**
+     * Retorna o nó dono de um email.
+     *
+     * @param email O email do jogador.
+     * @return O identificador do nó responsável.
+     * @throws RuntimeException Se o anel estiver vazio.
+     */
+    public String noPara(String email) {
+        if (anel.isEmpty()) {
+            throw new RuntimeException("Nenhum nó no anel.");
+        }
+        Map.Entry<Long, String> ponto = anel.ceilingEntry(hash(email));
+        return ponto != null ? ponto.getValue() : anel.firstEntry().getValue();
+    }
+
+    /**
+     * Retorna os nós do anel, na ordem em que foram adicionados.
+     *
+     * @return Uma cópia da lista de nós.
+     */
+    public List<String> getNos() {
+        return new ArrayList<>(nos);
+    }
+
+    /**
+     * Cria uma cópia do anel com um nó a mais.
+     *
+     * @param no O nó a adicionar.
+     * @return O novo anel.
+     */
+    public AnelConsistente comNo(String no) {
+        AnelConsistente novo = new AnelConsistente(nos, pontosVirtuais);
+        novo.adicionar(no);
+        return novo;
+    }
+
+    /**
+     * Hash de 64 bits (FNV-1a seguido da mistura final do MurmurHash3) sobre os bytes UTF-8.
+     * É estável entre processos, o que permite que nós e roteador calculem o mesmo anel.
+     *
+     * @param texto O texto.
+     * @return O hash.
+     */
+    static long hash(String texto) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : texto.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,174 @@
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.function.LongSupplier;
+
+/**
+ * Exibidor que conta os caracteres recebidos, formatando de fato as mensagens com
+ * printf. Permite medir o custo de formatação de uma rodada sem escrever no console.
+ */
+class ExibidorContador implements ExibidorDeMensagens {
+    private long caracteres;
+
+    @Override
+    public void exibirMensagem(String mensagem) {
+        caracteres += mensagem.length();
+    }
+
+    @Override
+    public void exibirMensagem(CharSequence mensagem) {
+        caracteres += mensagem.length();
+    }
+
+    @Override
+    public void exibirMensagemFormatada(String formato, Object... args) {
+        caracteres += String.format(formato, args).length();
+    }
+
+    public long getCaracteres() {
+        return caracteres;
+    }
+}
+
+/**
+ * Compara a formatação de valores com {@code String.format("%.2f")} e com {@link Dinheiro}
+ * nos três caminhos em que ela aparece: a formatação isolada, a mensagem de prêmio de
+ * uma rodada e o salvamento do CSV de jogadores. Para cada caso exibe o tempo e os
+ * bytes alocados por operação.
+ *
+ * <p>
+ * Uso: {@code java BenchmarkDinheiro [jogadores] [rodadas]}
+ */
+public class BenchmarkDinheiro {
+    private static final int REPETICOES = 5; // A primeira repetição serve de aquecimento.
+
+    private static volatile long sumidouro; // Impede que o JIT descarte os resultados.
+
+    /**
+     * Método principal do benchmark.
+     *
+     * @param args Número de jogadores do CSV e de rodadas.
+     * @throws IOException Se o diretório temporário não puder ser criado.
+     */
+    public static void main(String[] args) throws IOException {
+        int jogadores = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int rodadas = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+
+        System.out.printf("%-34s %12s %14s%n", "Caso", "ns/op", "bytes/op");
+
+        long[] valores = new long[1024];
+        for (int i = 0; i < valores.length; i++) {
+            valores[i] = (i * 7919L) % 1_000_000; // Até R$9.999,99, com centavos variados.
+        }
+        int operacoes = 2_000_000;
+        medir("formatar String.format", operacoes, () -> {
+            long total = 0;
+            for (int i = 0; i < operacoes; i++) {
+                total += String.format("%.2f", valores[i & 1023] / 100.0).length();
+            }
+            return total;
+        });
+        char[] buffer = new char[Dinheiro.TAMANHO_MAXIMO];
+        medir("formatar Dinheiro", operacoes, () -> {
+            long total = 0;
+            for (int i = 0; i < operacoes; i++) {
+                total += Dinheiro.formatar(valores[i & 1023], buffer, 0);
+            }
+            return total;
+        });
+
+        ExibidorContador contador = new ExibidorContador();
+        medir("mensagem de prêmio String.format", operacoes, () -> {
+            for (int i = 0; i < operacoes; i++) {
+                contador.exibirMensagemFormatada("Parabéns! Você ganhou R$%.2f!%n", valores[i & 1023] / 100.0);
+            }
+            return contador.getCaracteres();
+        });
+        StringBuilder mensagem = new StringBuilder(64);
+        medir("mensagem de prêmio Dinheiro", operacoes, () -> {
+            for (int i = 0; i < operacoes; i++) {
+                mensagem.setLength(0);
+                Dinheiro.formatar(valores[i & 1023], mensagem.append("Parabéns! Você ganhou R$")).append('!');
+                contador.exibirMensagem(mensagem);
+            }
+            return contador.getCaracteres();
+        });
+
+        SistemaAutenticacao sistema = new SistemaAutenticacao();
+        LocalDate nascimento = LocalDate.of(1990, 1, 1);
+        for (int i = 0; i < jogadores; i++) {
+            Jogador jogador = sistema.cadastrar("bench" + i + "@exemplo.com", "senha", nascimento, "bench" + i);
+            jogador.depositar(valores[i & 1023]);
+        }
+        CacaNiquel slot = new SlotFacil();
+        slot.setSaida(contador);
+        Jogador apostador = sistema.buscar("bench0@exemplo.com");
+        medir("rodada completa (jogar)", rodadas, () -> {
+            for (int i = 0; i < rodadas; i++) {
+                if (apostador.getSaldoCentavos() < 1000) {
+                    apostador.depositar(Dinheiro.deReais(1000));
+                }
+                slot.jogar(apostador, 500);
+            }
+            return apostador.getSaldoCentavos();
+        });
+
+        File diretorio = java.nio.file.Files.createTempDirectory("benchmark-dinheiro").toFile();
+        File arquivo = new File(diretorio, "jogadores.csv");
+        medir("salvar CSV String.format", jogadores, () -> {
+            salvarComStringFormat(sistema, arquivo.getPath());
+            return arquivo.length();
+        });
+        medir("salvar CSV Dinheiro", jogadores, () -> {
+            sistema.salvarParaCsv(arquivo.getPath());
+            return arquivo.length();
+        });
+        arquivo.delete();
+        diretorio.delete();
+    }
+
+    /**
+     * Salvamento equivalente ao anterior à adoção de {@link Dinheiro}, usado como referência.
+     */
+    private static void salvarComStringFormat(SistemaAutenticacao sistema, String caminho) {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(caminho))) {
+            writer.write("email,senha_hash,saldo,data_de_nascimento,apelido,limites\n");
+            for (Jogador j : sistema.getJogadores()) {
+                writer.write(String.format("%s,%s,%.2f,%s,%s,%s%n", j.getEmail(), j.getSenhaHash(),
+                        j.getSaldoCentavos() / 100.0, j.getDataDeNascimento().toString(), j.getApelido(),
+                        j.getLimites() == null ? "" : j.getLimites().paraCsv()));
+            }
+        } catch (IOException e) {
+            System.err.println("Erro ao salvar jogadores para CSV: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Executa o caso várias vezes e exibe a melhor repetição após o aquecimento.
+     *
+     * @param nome       O nome do caso.
+     * @param operacoes  Quantas operações cada execução realiza.
+     * @param caso       O caso a medir; devolve um valor qualquer derivado do trabalho feito.
+     */
+    private static void medir(String nome, int operacoes, LongSupplier caso) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory
+                .getThreadMXBean();
+        long melhorNanos = Long.MAX_VALUE;
+        long bytes = 0;
+        for (int r = 0; r < REPETICOES; r++) {
+            long alocadoAntes = threads.getCurrentThreadAllocatedBytes();
+            long inicio = System.nanoTime();
+            sumidouro += caso.getAsLong();
+            long duracao = System.nanoTime() - inicio;
+            long alocado = threads.getCurrentThreadAllocatedBytes() - alocadoAntes;
+            if (r > 0 && duracao < melhorNanos) {
+                melhorNanos = duracao;
+                bytes = alocado;
+            }
+        }
+        System.out.printf("%-34s %12.1f %14.1f%n", nome, (double) melhorNanos / operacoes, (double) bytes / operacoes);
+    }
+}
@@ -0,0 +1,88 @@
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara a latência das rodadas com e sem {@link ReservatorioTabuleiros} sob carga em
+ * rajadas: cada jogador simulado joga uma rajada de rodadas seguidas e fica parado por
+ * um intervalo, como jogadores reais que disparam várias rodadas e depois pausam.
+ *
+ * <p>
+ * Uso: {@code java BenchmarkReservatorio [jogadores] [rajada] [pausaMs] [segundos]}
+ */
+public class BenchmarkReservatorio {
+
+    /**
+     * Método principal do benchmark.
+     *
+     * @param args Jogadores, rodadas por rajada, pausa entre rajadas e duração de cada modo.
+     * @throws InterruptedException Se a execução for interrompida.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int jogadores = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int rajada = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        long pausaMs = args.length > 2 ? Long.parseLong(args[2]) : 50;
+        int segundos = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+
+        executar("aquecimento", jogadores, rajada, pausaMs, 2, false);
+        HistogramaLatencia semReservatorio = executar("sem reservatório", jogadores, rajada, pausaMs, segundos, false);
+        HistogramaLatencia comReservatorio = executar("com reservatório", jogadores, rajada, pausaMs, segundos, true);
+
+        System.out.printf("%n%-18s %10s %10s %10s %10s %10s%n", "Modo", "Rodadas", "p50 (µs)", "p99 (µs)",
+                "p999 (µs)", "max (µs)");
+        exibir("sem reservatório", semReservatorio);
+        exibir("com reservatório", comReservatorio);
+    }
+
+    private static HistogramaLatencia executar(String nome, int jogadores, int rajada, long pausaMs, int segundos,
+            boolean comReservatorio) throws InterruptedException {
+        SistemaAutenticacao sistema = new SistemaAutenticacao();
+        ReservatorioTabuleiros reservatorio = null;
+        if (comReservatorio) {
+            reservatorio = new ReservatorioTabuleiros(new SlotDificil(), 1, ReservatorioTabuleiros.CAPACIDADE_PADRAO);
+            reservatorio.iniciar();
+        }
+        HistogramaLatencia histograma = new HistogramaLatencia();
+        long prazo = System.nanoTime() + TimeUnit.SECONDS.toNanos(segundos);
+        CountDownLatch fim = new CountDownLatch(jogadores);
+        for (int i = 0; i < jogadores; i++) {
+            Jogador jogador = sistema.cadastrar(nome.hashCode() + "-" + i + "@bench", "senha", LocalDate.of(1990, 1, 1),
+                    "bench");
+            CacaNiquel slot = new SlotDificil();
+            slot.setSaida(new ExibidorSilencioso());
+            slot.setReservatorio(reservatorio);
+            Thread.ofPlatform().start(() -> {
+                try {
+                    while (System.nanoTime() < prazo) {
+                        for (int r = 0; r < rajada; r++) {
+                            if (jogador.getSaldoCentavos() < Dinheiro.deReais(1000)) {
+                                jogador.depositar(Dinheiro.deReais(100_000));
+                            }
+                            long inicio = System.nanoTime();
+                            slot.jogar(jogador, Dinheiro.deReais(30));
+                            histograma.registrar(System.nanoTime() - inicio, true);
+                        }
+                        Thread.sleep(pausaMs);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    fim.countDown();
+                }
+            });
+        }
+        fim.await();
+        if (reservatorio != null) {
+            System.out.printf("%s: %d tabuleiros retirados, %d gerados na hora, profundidade alvo final %d%n", nome,
+                    reservatorio.getRetirados(), reservatorio.getFaltas(), reservatorio.getProfundidadeAlvo());
+            reservatorio.encerrar();
+        }
+        return histograma;
+    }
+
+    private static void exibir(String nome, HistogramaLatencia h) {
+        System.out.printf(Locale.ROOT, "%-18s %10d %10.1f %10.1f %10.1f %10.1f%n", nome, h.getTotal(),
+                h.percentil(50) / 1000.0, h.percentil(99) / 1000.0, h.percentil(99.9) / 1000.0, h.maximo() / 1000.0);
+    }
+}
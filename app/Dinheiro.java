@@ -0,0 +1,203 @@
+/**
+ * Operações sobre valores monetários representados como centavos em um {@code long}.
+ * Saldos, apostas e prêmios circulam como {@code long} (sem objetos nem arredondamento
+ * de ponto flutuante); esta classe converte, formata e interpreta esses valores.
+ * A formatação escreve direto em buffers reutilizáveis de char ou byte, sem
+ * {@link String#format} e sem criar objetos.
+ */
+final class Dinheiro {
+    public static final long CENTAVOS_POR_REAL = 100;
+    public static final int TAMANHO_MAXIMO = 21; // Sinal, até 17 dígitos inteiros, ponto e 2 casas decimais.
+
+    private Dinheiro() {
+    }
+
+    /**
+     * Converte reais inteiros em centavos.
+     *
+     * @param reais O valor em reais.
+     * @return O valor em centavos.
+     * @throws ArithmeticException Se o resultado não couber em um long.
+     */
+    public static long deReais(long reais) {
+        return Math.multiplyExact(reais, CENTAVOS_POR_REAL);
+    }
+
+    /**
+     * Interpreta um valor como "123", "123.4", "123.45" ou "123,45" (sinal opcional).
+     *
+     * @param texto O texto do valor.
+     * @return O valor em centavos.
+     * @throws NumberFormatException Se o texto não for um valor válido com até 2 casas decimais.
+     */
+    public static long interpretar(CharSequence texto) {
+        return interpretar(texto, 0, texto.length());
+    }
+
+    /**
+     * Interpreta um valor contido em um trecho de texto, sem criar substrings.
+     *
+     * @param texto  O texto.
+     * @param inicio Posição inicial (inclusiva).
+     * @param fim    Posição final (exclusiva).
+     * @return O valor em centavos.
+     * @throws NumberFormatException Se o trecho não for um valor válido com até 2 casas decimais.
+     */
+    public static long interpretar(CharSequence texto, int inicio, int fim) {
+        int i = inicio;
+        boolean negativo = false;
+        if (i < fim && (texto.charAt(i) == '-' || texto.charAt(i) == '+')) {
+            negativo = texto.charAt(i) == '-';
+            i++;
+        }
+        long inteiro = 0;
+        int digitosInteiros = 0;
+        while (i < fim && digito(texto.charAt(i))) {
+            try {
+                inteiro = Math.addExact(Math.multiplyExact(inteiro, 10), texto.charAt(i) - '0');
+            } catch (ArithmeticException e) {
+                throw valorInvalido(texto, inicio, fim);
+            }
+            digitosInteiros++;
+            i++;
+        }
+        long fracao = 0;
+        int digitosFracao = 0;
+        if (i < fim && (texto.charAt(i) == '.' || texto.charAt(i) == ',')) {
+            i++;
+            while (i < fim && digito(texto.charAt(i)) && digitosFracao < 2) {
+                fracao = fracao * 10 + (texto.charAt(i) - '0');
+                digitosFracao++;
+                i++;
+            }
+            if (digitosFracao == 0) {
+                throw valorInvalido(texto, inicio, fim);
+            }
+        }
+        if (i != fim || digitosInteiros == 0 && digitosFracao == 0) {
+            throw valorInvalido(texto, inicio, fim);
+        }
+        if (digitosFracao == 1) {
+            fracao *= 10; // "1.5" significa 1 real e 50 centavos.
+        }
+        long centavos;
+        try {
+            centavos = Math.addExact(Math.multiplyExact(inteiro, CENTAVOS_POR_REAL), fracao);
+        } catch (ArithmeticException e) {
+            throw valorInvalido(texto, inicio, fim);
+        }
+        return negativo ? -centavos : centavos;
+    }
+
+    /**
+     * Escreve o valor como "-123.45" em um buffer de caracteres.
+     *
+     * @param centavos O valor em centavos.
+     * @param destino  O buffer; precisa de até {@link #TAMANHO_MAXIMO} posições livres.
+     * @param posicao  Onde começar a escrever.
+     * @return A posição logo após o último caractere escrito.
+     */
+    public static int formatar(long centavos, char[] destino, int posicao) {
+        if (centavos < 0) {
+            destino[posicao++] = '-';
+        }
+        // Trabalha com o valor negativo para que Long.MIN_VALUE também funcione.
+        long negativo = centavos < 0 ? centavos : -centavos;
+        int tamanho = tamanhoSemSinal(negativo);
+        int fim = posicao + tamanho;
+        int i = fim;
+        long q = negativo;
+        destino[--i] = (char) ('0' - (q % 10));
+        q /= 10;
+        destino[--i] = (char) ('0' - (q % 10));
+        q /= 10;
+        destino[--i] = '.';
+        do {
+            destino[--i] = (char) ('0' - (q % 10));
+            q /= 10;
+        } while (q != 0);
+        return fim;
+    }
+
+    /**
+     * Escreve o valor como "-123.45" em um buffer de bytes ASCII.
+     *
+     * @param centavos O valor em centavos.
+     * @param destino  O buffer; precisa de até {@link #TAMANHO_MAXIMO} posições livres.
+     * @param posicao  Onde começar a escrever.
+     * @return A posição logo após o último byte escrito.
+     */
+    public static int formatar(long centavos, byte[] destino, int posicao) {
+        if (centavos < 0) {
+            destino[posicao++] = '-';
+        }
+        long negativo = centavos < 0 ? centavos : -centavos;
+        int fim = posicao + tamanhoSemSinal(negativo);
+        int i = fim;
+        long q = negativo;
+        destino[--i] = (byte) ('0' - (q % 10));
+        q /= 10;
+        destino[--i] = (byte) ('0' - (q % 10));
+        q /= 10;
+        destino[--i] = '.';
+        do {
+            destino[--i] = (byte) ('0' - (q % 10));
+            q /= 10;
+        } while (q != 0);
+        return fim;
+    }
+
+    /**
+     * Acrescenta o valor formatado a um StringBuilder (reutilizável pelo chamador).
+     *
+     * @param centavos O valor em centavos.
+     * @param destino  O StringBuilder.
+     * @return O próprio StringBuilder.
+     */
+    public static StringBuilder formatar(long centavos, StringBuilder destino) {
+        if (centavos < 0) {
+            destino.append('-');
+        }
+        long negativo = centavos < 0 ? centavos : -centavos;
+        long reais = negativo / CENTAVOS_POR_REAL;
+        int resto = (int) -(negativo % CENTAVOS_POR_REAL);
+        return destino.append(-reais).append('.').append((char) ('0' + resto / 10))
+                .append((char) ('0' + resto % 10));
+    }
+
+    /**
+     * Formata o valor como texto (conveniência para mensagens fora dos caminhos quentes).
+     *
+     * @param centavos O valor em centavos.
+     * @return O valor no formato "123.45".
+     */
+    public static String paraTexto(long centavos) {
+        char[] buffer = new char[TAMANHO_MAXIMO];
+        return new String(buffer, 0, formatar(centavos, buffer, 0));
+    }
+
+    /**
+     * Quantidade de caracteres do valor sem o sinal (mínimo "0.00").
+     */
+    private static int tamanhoSemSinal(long negativo) {
+        int digitos = 1;
+        long q = negativo / CENTAVOS_POR_REAL;
+        while (q <= -10) {
+            q /= 10;
+            digitos++;
+        }
+        return digitos + 3; // Parte inteira, ponto e 2 casas decimais.
+    }
+
+    /**
+     * Só os dígitos ASCII: Character.isDigit aceitaria também os de outras escritas
+     * (ex: arábico-índicos ou de largura total).
+     */
+    private static boolean digito(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static NumberFormatException valorInvalido(CharSequence texto, int inicio, int fim) {
+        return new NumberFormatException("Valor inválido: " + texto.subSequence(inicio, fim));
+    }
+}
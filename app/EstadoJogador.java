@@ -0,0 +1,111 @@
+import java.time.LocalDate;
+
+/**
+ * Versão imutável dos dados de um jogador. Cada alteração de um {@link Jogador} cria
+ * uma nova versão; as anteriores só continuam encadeadas enquanto algum instantâneo
+ * aberto ainda precisar delas.
+ */
+final class EstadoJogador {
+    final long versao; // Versão global em que este estado foi gravado.
+    final String email;
+    final String senhaHash;
+    final long saldoCentavos;
+    final LocalDate dataDeNascimento;
+    final String apelido;
+    final boolean statusMaiorDeIdade;
+    final String limitesCsv; // Configuração dos limites no formato do CSV ("" sem limites).
+    final boolean removido; // O jogador saiu do sistema nesta versão.
+    volatile EstadoJogador anterior; // Versão mais antiga ainda necessária, ou null.
+
+    EstadoJogador(long versao, String email, String senhaHash, long saldoCentavos, LocalDate dataDeNascimento,
+            String apelido, boolean statusMaiorDeIdade, String limitesCsv, boolean removido) {
+        this.versao = versao;
+        this.email = email;
+        this.senhaHash = senhaHash;
+        this.saldoCentavos = saldoCentavos;
+        this.dataDeNascimento = dataDeNascimento;
+        this.apelido = apelido;
+        this.statusMaiorDeIdade = statusMaiorDeIdade;
+        this.limitesCsv = limitesCsv;
+        this.removido = removido;
+    }
+
+    // Cópias com um campo alterado, na versão informada.
+    EstadoJogador comSaldo(long versao, long saldoCentavos) {
+        return new EstadoJogador(versao, email, senhaHash, saldoCentavos, dataDeNascimento, apelido,
+                statusMaiorDeIdade, limitesCsv, removido);
+    }
+
+    EstadoJogador comEmail(long versao, String email) {
+        return new EstadoJogador(versao, email, senhaHash, saldoCentavos, dataDeNascimento, apelido,
+                statusMaiorDeIdade, limitesCsv, removido);
+    }
+
+    EstadoJogador comSenhaHash(long versao, String senhaHash) {
+        return new EstadoJogador(versao, email, senhaHash, saldoCentavos, dataDeNascimento, apelido,
+                statusMaiorDeIdade, limitesCsv, removido);
+    }
+
+    EstadoJogador comDataDeNascimento(long versao, LocalDate dataDeNascimento) {
+        return new EstadoJogador(versao, email, senhaHash, saldoCentavos, dataDeNascimento, apelido,
+                statusMaiorDeIdade, limitesCsv, removido);
+    }
+
+    EstadoJogador comApelido(long versao, String apelido) {
+        return new EstadoJogador(versao, email, senhaHash, saldoCentavos, dataDeNascimento, apelido,
+                statusMaiorDeIdade, limitesCsv, removido);
+    }
+
+    EstadoJogador comStatusMaiorDeIdade(long versao, boolean statusMaiorDeIdade) {
+        return new EstadoJogador(versao, email, senhaHash, saldoCentavos, dataDeNascimento, apelido,
+                statusMaiorDeIdade, limitesCsv, removido);
+    }
+
+    EstadoJogador comLimitesCsv(long versao, String limitesCsv) {
+        return new EstadoJogador(versao, email, senhaHash, saldoCentavos, dataDeNascimento, apelido,
+                statusMaiorDeIdade, limitesCsv, removido);
+    }
+
+    EstadoJogador comVersao(long versao) {
+        return new EstadoJogador(versao, email, senhaHash, saldoCentavos, dataDeNascimento, apelido,
+                statusMaiorDeIdade, limitesCsv, removido);
+    }
+
+    EstadoJogador removido(long versao) {
+        return new EstadoJogador(versao, email, senhaHash, saldoCentavos, dataDeNascimento, apelido,
+                statusMaiorDeIdade, limitesCsv, true);
+    }
+
+    // Getters para os atributos.
+    public long getVersao() {
+        return versao;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getSenhaHash() {
+        return senhaHash;
+    }
+
+    public long getSaldoCentavos() {
+        return saldoCentavos;
+    }
+
+    public LocalDate getDataDeNascimento() {
+        return dataDeNascimento;
+    }
+
+    public String getApelido() {
+        return apelido;
+    }
+
+    public boolean getStatusMaiorDeIdade() {
+        return statusMaiorDeIdade;
+    }
+
+    public String getLimitesCsv() {
+        return limitesCsv;
+    }
+}
@@ -0,0 +1,24 @@
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+import jdk.jfr.Timespan;
+
+/**
+ * O atraso progressivo aplicado após senhas incorretas consecutivas.
+ */
+@Name(EventoAtrasoLogin.NOME)
+@Label("Atraso de login")
+@Category("Cassino")
+@Threshold("0 ms") // Raro e sempre longo: toda ocorrência interessa.
+final class EventoAtrasoLogin extends Event {
+    static final String NOME = "cassino.AtrasoLogin";
+
+    @Label("Atraso solicitado")
+    @Timespan(Timespan.MILLISECONDS)
+    long atrasoSolicitado;
+
+    @Label("Interrompido")
+    boolean interrompido;
+}
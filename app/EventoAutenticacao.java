@@ -0,0 +1,21 @@
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Uma verificação de senha em {@code Jogador.autenticar}.
+ */
+@Name(EventoAutenticacao.NOME)
+@Label("Autenticação")
+@Category("Cassino")
+@Threshold("1 ms")
+@StackTrace(false)
+final class EventoAutenticacao extends Event {
+    static final String NOME = "cassino.Autenticacao";
+
+    @Label("Sucesso")
+    boolean sucesso;
+}
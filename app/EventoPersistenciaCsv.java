@@ -0,0 +1,34 @@
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Uma gravação ou leitura do CSV de jogadores.
+ */
+@Name(EventoPersistenciaCsv.NOME)
+@Label("Persistência CSV")
+@Category("Cassino")
+@Threshold("0 ms")
+@StackTrace(false)
+final class EventoPersistenciaCsv extends Event {
+    static final String NOME = "cassino.PersistenciaCsv";
+
+    @Label("Operação")
+    @Description("salvar ou carregar.")
+    String operacao;
+
+    @Label("Caminho")
+    String caminho;
+
+    @Label("Linhas")
+    long linhas;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+}
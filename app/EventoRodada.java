@@ -0,0 +1,44 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Uma rodada de {@code CacaNiquel.jogar}.
+ *
+ * <p>
+ * Como os demais eventos do JDK Flight Recorder do jogo ({@code Evento*.java}): sem
+ * gravação ativa (ou com o evento desabilitado), shouldCommit() devolve falso e nenhum
+ * campo é preenchido; o objeto do evento não escapa do método e é eliminado pelo JIT. Os
+ * limiares padrão podem ser trocados na linha de comando, ex:
+ * -XX:StartFlightRecording:cassino.Rodada#threshold=0ms.
+ */
+@Name(EventoRodada.NOME)
+@Label("Rodada")
+@Category("Cassino")
+@Description("Rodada de caça-níquel, da validação da aposta ao crédito do prêmio.")
+@Threshold("1 ms") // Rodadas normais levam microssegundos: só os picos são gravados.
+@StackTrace(false)
+final class EventoRodada extends Event {
+    static final String NOME = "cassino.Rodada";
+
+    @Label("Slot")
+    String slot;
+
+    @Label("Aposta (centavos)")
+    long apostaCentavos;
+
+    @Label("Prêmio (centavos)")
+    long premioCentavos;
+
+    @Label("Resultado")
+    @Description("vitoria, bonus ou derrota.")
+    String resultado;
+
+    @Label("Origem do tabuleiro")
+    @Description("reservatorio, verificavel ou na-hora.")
+    String origem;
+}
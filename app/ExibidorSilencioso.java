@@ -0,0 +1,20 @@
+/**
+ * Exibidor que descarta todas as mensagens.
+ * Substitui o console quando o jogo é executado sem usuário (cargas, simulações).
+ */
+class ExibidorSilencioso implements ExibidorDeMensagens {
+    @Override
+    public void exibirMensagem(String mensagem) {
+        // Descarta a mensagem.
+    }
+
+    @Override
+    public void exibirMensagem(CharSequence mensagem) {
+        // Descarta a mensagem sem convertê-la em String.
+    }
+
+    @Override
+    public void exibirMensagemFormatada(String formato, Object... args) {
+        // Descarta a mensagem.
+    }
+}
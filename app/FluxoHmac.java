@@ -0,0 +1,109 @@
+import java.security.GeneralSecurityException;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Fluxo determinístico de sorteios derivado de HMAC-SHA256.
+ * Para a rodada (sementeCliente, nonce), o bloco i do fluxo é
+ * {@code HMAC-SHA256(sementeServidor, "sementeCliente:nonce:i")}. Cada sorteio consome
+ * bytes do fluxo por rejeição (um byte é aceito se for menor que o maior múltiplo do
+ * limite até 256), então todo valor é exatamente uniforme. Não é seguro entre threads.
+ */
+final class FluxoHmac implements FonteSorteio {
+    private static final int TAMANHO_BLOCO = 32;
+
+    private final Mac mac;
+    private final byte[] bloco = new byte[TAMANHO_BLOCO];
+    private final byte[] mensagem = new byte[256]; // "sementeCliente:nonce:" reutilizado entre rodadas.
+    private int tamanhoPrefixo;
+    private int proximoBloco;
+    private int posicao = TAMANHO_BLOCO;
+
+    /**
+     * Construtor da classe FluxoHmac.
+     *
+     * @param sementeServidor A semente secreta do servidor.
+     */
+    FluxoHmac(byte[] sementeServidor) {
+        try {
+            mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(sementeServidor, "HmacSHA256"));
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException("HMAC-SHA256 indisponível.", e);
+        }
+    }
+
+    /**
+     * Posiciona o fluxo no início de uma rodada.
+     *
+     * @param sementeCliente A semente escolhida pelo jogador.
+     * @param nonce          O número da rodada com esse par de sementes.
+     */
+    void iniciarRodada(String sementeCliente, long nonce) {
+        iniciarRodada(sementeCliente, 0, sementeCliente.length(), nonce);
+    }
+
+    /**
+     * Posiciona o fluxo no início de uma rodada, lendo a semente de um trecho de texto.
+     *
+     * @param texto  O texto que contém a semente do cliente.
+     * @param inicio Início da semente (inclusivo).
+     * @param fim    Fim da semente (exclusivo).
+     * @param nonce  O número da rodada com esse par de sementes.
+     */
+    void iniciarRodada(CharSequence texto, int inicio, int fim, long nonce) {
+        int n = 0;
+        for (int i = inicio; i < fim; i++) {
+            mensagem[n++] = (byte) texto.charAt(i); // Sementes de cliente são ASCII.
+        }
+        mensagem[n++] = ':';
+        n = escreverDecimal(nonce, n);
+        mensagem[n++] = ':';
+        tamanhoPrefixo = n;
+        proximoBloco = 0;
+        posicao = TAMANHO_BLOCO;
+    }
+
+    @Override
+    public int nextInt(int limite) {
+        if (limite < 1 || limite > 256) {
+            throw new RuntimeException("Limite de sorteio fora do intervalo 1-256: " + limite);
+        }
+        int aceitos = 256 - 256 % limite; // Bytes acima disso introduziriam viés e são descartados.
+        while (true) {
+            if (posicao == TAMANHO_BLOCO) {
+                gerarBloco();
+            }
+            int b = bloco[posicao++] & 0xff;
+            if (b < aceitos) {
+                return b % limite;
+            }
+        }
+    }
+
+    private void gerarBloco() {
+        int n = escreverDecimal(proximoBloco++, tamanhoPrefixo);
+        mac.update(mensagem, 0, n);
+        try {
+            mac.doFinal(bloco, 0);
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException(e);
+        }
+        posicao = 0;
+    }
+
+    private int escreverDecimal(long valor, int posicao) {
+        if (valor == 0) {
+            mensagem[posicao] = '0';
+            return posicao + 1;
+        }
+        int fim = posicao;
+        for (long v = valor; v > 0; v /= 10) {
+            fim++;
+        }
+        for (int i = fim - 1; valor > 0; valor /= 10) {
+            mensagem[i--] = (byte) ('0' + valor % 10);
+        }
+        return fim;
+    }
+}
@@ -0,0 +1,13 @@
+/**
+ * Fonte de sorteios uniformes usada pelo {@link MotorGiros}.
+ * Pode ser um gerador pseudoaleatório comum ou um fluxo determinístico (ex: {@link FluxoHmac}).
+ */
+interface FonteSorteio {
+    /**
+     * Sorteia um inteiro uniforme.
+     *
+     * @param limite O limite superior (exclusivo).
+     * @return Um valor entre 0 e limite - 1.
+     */
+    int nextInt(int limite);
+}
@@ -0,0 +1,369 @@
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Operações medidas pelo gerador de carga.
+ */
+enum OperacaoCarga {
+    CADASTRO,
+    LOGIN,
+    LOGIN_INVALIDO,
+    JOGAR,
+    DEPOSITO,
+    SAQUE
+}
+
+/**
+ * Perfis de comportamento dos jogadores simulados.
+ */
+enum PerfilBot {
+    NORMAL, // Faz login, joga algumas rodadas em slots variados, deposita e saca.
+    TEMPESTADE_LOGIN, // Faz login repetidamente com a senha correta.
+    BALEIA, // Joga sem parar no slot difícil com a aposta máxima, depositando quando precisa.
+    ATACANTE // Tenta logins com senha errada em contas de outros jogadores.
+}
+
+/**
+ * Gerador de carga que simula milhares de jogadores sobre as classes reais do jogo.
+ * Cada jogador simulado roda em sua própria thread virtual. A saída do console é
+ * substituída por um {@link ExibidorSilencioso} e o saldo passa pelo {@link LivroRazao}.
+ * Ao final, exibe vazão, latências (p50/p99/p999) e erros por operação e grava o
+ * resultado em um arquivo JSON para comparação entre execuções.
+ *
+ * <p>
+ * Uso: {@code java GeradorDeCarga --normais=2000 --tempestade=500 --baleias=200
+ * --atacantes=100 --duracao=30 --espera-ms=30000 --saida=carga.json --reservatorio=true}
+ */
+public class GeradorDeCarga {
+    private static final String SENHA_BOT = "senha-do-bot";
+
+    private final Map<PerfilBot, Integer> quantidades = new EnumMap<>(PerfilBot.class);
+    private final Map<OperacaoCarga, HistogramaLatencia> histogramas = new EnumMap<>(OperacaoCarga.class);
+    private final long duracaoSegundos;
+    private final SistemaAutenticacao sistema;
+    private final LivroRazao livroRazao = new LivroRazao();
+    private final ExibidorDeMensagens saida = new ExibidorSilencioso();
+    private final List<String> emailsCadastrados = Collections.synchronizedList(new ArrayList<>());
+
+    private volatile long prazoNanos; // Momento em que os jogadores simulados devem parar.
+    private ReservatorioTabuleiros[] reservatorios; // Um por slot (fácil, médio, difícil), se ativados.
+
+    /**
+     * Construtor da classe GeradorDeCarga.
+     *
+     * @param quantidades     Quantidade de jogadores simulados por perfil.
+     * @param duracaoSegundos Duração da fase de carga em segundos.
+     * @param millisEspera    Atraso base de login após senhas incorretas.
+     */
+    public GeradorDeCarga(Map<PerfilBot, Integer> quantidades, long duracaoSegundos, long millisEspera) {
+        this.quantidades.putAll(quantidades);
+        this.duracaoSegundos = duracaoSegundos;
+        this.sistema = new SistemaAutenticacao(5, millisEspera);
+        for (OperacaoCarga operacao : OperacaoCarga.values()) {
+            histogramas.put(operacao, new HistogramaLatencia());
+        }
+    }
+
+    /**
+     * Faz os slots dos jogadores simulados retirarem tabuleiros pré-gerados em segundo plano.
+     */
+    public void ativarReservatorios() {
+        CacaNiquel[] modelos = { new SlotFacil(), new SlotMedio(), new SlotDificil() };
+        reservatorios = new ReservatorioTabuleiros[modelos.length];
+        for (int i = 0; i < modelos.length; i++) {
+            reservatorios[i] = new ReservatorioTabuleiros(modelos[i], 1, ReservatorioTabuleiros.CAPACIDADE_PADRAO);
+            reservatorios[i].iniciar();
+        }
+    }
+
+    /**
+     * Executa a carga e devolve os histogramas de cada operação.
+     *
+     * @return Os histogramas preenchidos, por operação.
+     * @throws InterruptedException Se a thread principal for interrompida durante a espera.
+     */
+    public Map<OperacaoCarga, HistogramaLatencia> executar() throws InterruptedException {
+        prazoNanos = System.nanoTime() + TimeUnit.SECONDS.toNanos(duracaoSegundos);
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        List<PerfilBot> bots = new ArrayList<>();
+        for (Map.Entry<PerfilBot, Integer> entrada : quantidades.entrySet()) {
+            for (int i = 0; i < entrada.getValue(); i++) {
+                bots.add(entrada.getKey());
+            }
+        }
+        Collections.shuffle(bots); // Mistura os perfis para que todos comecem ao mesmo tempo.
+        for (int id = 0; id < bots.size(); id++) {
+            PerfilBot perfil = bots.get(id);
+            String email = "bot" + id + "@carga.local";
+            executor.submit(() -> executarBot(perfil, email));
+        }
+        executor.shutdown();
+        if (!executor.awaitTermination(duracaoSegundos + 5, TimeUnit.SECONDS)) {
+            executor.shutdownNow(); // Interrompe atacantes presos no atraso de login.
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+        return histogramas;
+    }
+
+    /**
+     * Laço de um jogador simulado.
+     *
+     * @param perfil O perfil de comportamento.
+     * @param email  O email da conta do jogador simulado.
+     */
+    private void executarBot(PerfilBot perfil, String email) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Jogador jogador;
+        long inicio = System.nanoTime();
+        try {
+            jogador = sistema.cadastrar(email, SENHA_BOT, LocalDate.of(1990, 1, 1), "bot");
+            livroRazao.abrirConta(jogador);
+            registrar(OperacaoCarga.CADASTRO, inicio, true);
+            emailsCadastrados.add(email);
+        } catch (RuntimeException e) {
+            registrar(OperacaoCarga.CADASTRO, inicio, false);
+            return;
+        }
+
+        CacaNiquel[] slots = { new SlotFacil(), new SlotMedio(), new SlotDificil() };
+        for (int i = 0; i < slots.length; i++) {
+            slots[i].setSaida(saida);
+            slots[i].setLivroRazao(livroRazao);
+            if (reservatorios != null) {
+                slots[i].setReservatorio(reservatorios[i]);
+            }
+        }
+
+        while (System.nanoTime() < prazoNanos && !Thread.currentThread().isInterrupted()) {
+            switch (perfil) {
+                case NORMAL:
+                    login(email, SENHA_BOT);
+                    for (int i = 0; i < 10; i++) {
+                        CacaNiquel slot = slots[random.nextInt(slots.length)];
+                        jogar(jogador, slot, Dinheiro.deReais(random.nextInt(slot.apostaMin, slot.apostaMax + 1)));
+                    }
+                    if (jogador.getSaldoCentavos() >= Dinheiro.deReais(100)) {
+                        sacar(jogador, Dinheiro.deReais(50));
+                    }
+                    break;
+                case TEMPESTADE_LOGIN:
+                    login(email, SENHA_BOT);
+                    break;
+                case BALEIA:
+                    jogar(jogador, slots[2], Dinheiro.deReais(slots[2].apostaMax));
+                    break;
+                case ATACANTE:
+                    String alvo = escolherAlvo(random, email);
+                    long t = System.nanoTime();
+                    boolean rejeitado;
+                    try {
+                        sistema.login(alvo, "senha-errada-" + random.nextInt(1_000_000));
+                        rejeitado = false;
+                    } catch (RuntimeException e) {
+                        rejeitado = true;
+                    }
+                    registrar(OperacaoCarga.LOGIN_INVALIDO, t, rejeitado); // Erro aqui é o login ser aceito.
+                    break;
+            }
+            // Threads virtuais não são preemptivas: cede a vez para que bots presos em CPU não monopolizem.
+            Thread.yield();
+        }
+    }
+
+    private void login(String email, String senha) {
+        long inicio = System.nanoTime();
+        try {
+            sistema.login(email, senha);
+            registrar(OperacaoCarga.LOGIN, inicio, true);
+        } catch (RuntimeException e) {
+            registrar(OperacaoCarga.LOGIN, inicio, false);
+        }
+    }
+
+    private void jogar(Jogador jogador, CacaNiquel slot, long aposta) {
+        if (jogador.getSaldoCentavos() < aposta) {
+            depositar(jogador, Dinheiro.deReais(1000));
+        }
+        long inicio = System.nanoTime();
+        try {
+            slot.jogar(jogador, aposta);
+            registrar(OperacaoCarga.JOGAR, inicio, true);
+        } catch (RuntimeException e) {
+            registrar(OperacaoCarga.JOGAR, inicio, false);
+        }
+    }
+
+    private void depositar(Jogador jogador, long valor) {
+        long inicio = System.nanoTime();
+        try {
+            livroRazao.depositar(jogador, valor, UUID.randomUUID().toString());
+            registrar(OperacaoCarga.DEPOSITO, inicio, true);
+        } catch (RuntimeException e) {
+            registrar(OperacaoCarga.DEPOSITO, inicio, false);
+        }
+    }
+
+    private void sacar(Jogador jogador, long valor) {
+        long inicio = System.nanoTime();
+        try {
+            livroRazao.sacar(jogador, valor, UUID.randomUUID().toString());
+            registrar(OperacaoCarga.SAQUE, inicio, true);
+        } catch (RuntimeException e) {
+            registrar(OperacaoCarga.SAQUE, inicio, false);
+        }
+    }
+
+    private String escolherAlvo(ThreadLocalRandom random, String proprio) {
+        synchronized (emailsCadastrados) {
+            if (emailsCadastrados.isEmpty()) {
+                return proprio;
+            }
+            return emailsCadastrados.get(random.nextInt(emailsCadastrados.size()));
+        }
+    }
+
+    private void registrar(OperacaoCarga operacao, long inicioNanos, boolean sucesso) {
+        histogramas.get(operacao).registrar(System.nanoTime() - inicioNanos, sucesso);
+    }
+
+    /**
+     * Retorna as contas cujo saldo diverge do livro-razão ao final da carga.
+     *
+     * @return Os emails divergentes.
+     */
+    public List<String> auditar() {
+        return livroRazao.auditar(sistema.getJogadores());
+    }
+
+    /**
+     * Grava o resultado da execução em JSON.
+     *
+     * @param caminho      O caminho do arquivo de saída.
+     * @param divergencias Número de contas divergentes na auditoria do livro-razão.
+     */
+    public void salvarResultado(String caminho, int divergencias) {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(caminho))) {
+            writer.write("{\n");
+            writer.write(String.format(Locale.ROOT, "  \"inicio\": \"%s\",%n", Instant.now()));
+            writer.write(String.format(Locale.ROOT, "  \"duracaoSegundos\": %d,%n", duracaoSegundos));
+            writer.write("  \"perfis\": {");
+            String separador = "";
+            for (Map.Entry<PerfilBot, Integer> entrada : quantidades.entrySet()) {
+                writer.write(String.format(Locale.ROOT, "%s\"%s\": %d", separador, entrada.getKey(), entrada.getValue()));
+                separador = ", ";
+            }
+            writer.write("},\n");
+            writer.write(String.format(Locale.ROOT, "  \"divergenciasLivroRazao\": %d,%n", divergencias));
+            writer.write("  \"operacoes\": [\n");
+            separador = "";
+            for (Map.Entry<OperacaoCarga, HistogramaLatencia> entrada : histogramas.entrySet()) {
+                HistogramaLatencia h = entrada.getValue();
+                writer.write(separador);
+                writer.write(String.format(Locale.ROOT,
+                        "    {\"operacao\": \"%s\", \"total\": %d, \"erros\": %d, \"vazaoPorSegundo\": %.1f, "
+                                + "\"p50Micros\": %.1f, \"p99Micros\": %.1f, \"p999Micros\": %.1f, \"maxMicros\": %.1f}",
+                        entrada.getKey(), h.getTotal(), h.getErros(), (double) h.getTotal() / duracaoSegundos,
+                        h.percentil(50) / 1000.0, h.percentil(99) / 1000.0, h.percentil(99.9) / 1000.0,
+                        h.maximo() / 1000.0));
+                separador = ",\n";
+            }
+            writer.write("\n  ]\n}\n");
+        } catch (IOException e) {
+            System.err.println("Erro ao salvar resultado da carga: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Exibe a tabela de resultados no console.
+     */
+    public void exibirResultado() {
+        System.out.printf("%-16s %10s %8s %12s %12s %12s %12s%n", "Operação", "Total", "Erros", "Ops/s",
+                "p50 (µs)", "p99 (µs)", "p999 (µs)");
+        for (Map.Entry<OperacaoCarga, HistogramaLatencia> entrada : histogramas.entrySet()) {
+            HistogramaLatencia h = entrada.getValue();
+            System.out.printf(Locale.ROOT, "%-16s %10d %8d %12.1f %12.1f %12.1f %12.1f%n", entrada.getKey(),
+                    h.getTotal(), h.getErros(), (double) h.getTotal() / duracaoSegundos, h.percentil(50) / 1000.0,
+                    h.percentil(99) / 1000.0, h.percentil(99.9) / 1000.0);
+        }
+    }
+
+    /**
+     * Método principal do gerador de carga.
+     *
+     * @param args Opções no formato --chave=valor.
+     * @throws InterruptedException Se a execução for interrompida.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        Map<PerfilBot, Integer> quantidades = new EnumMap<>(PerfilBot.class);
+        quantidades.put(PerfilBot.NORMAL, 1000);
+        quantidades.put(PerfilBot.TEMPESTADE_LOGIN, 200);
+        quantidades.put(PerfilBot.BALEIA, 100);
+        quantidades.put(PerfilBot.ATACANTE, 50);
+        long duracao = 30;
+        long esperaMs = 30_000;
+        boolean comReservatorios = false;
+        String arquivoSaida = "carga-" + System.currentTimeMillis() + ".json";
+
+        for (String arg : args) {
+            String[] partes = arg.split("=", 2);
+            if (partes.length != 2) {
+                System.err.println("Opção inválida: " + arg);
+                return;
+            }
+            switch (partes[0]) {
+                case "--normais":
+                    quantidades.put(PerfilBot.NORMAL, Integer.parseInt(partes[1]));
+                    break;
+                case "--tempestade":
+                    quantidades.put(PerfilBot.TEMPESTADE_LOGIN, Integer.parseInt(partes[1]));
+                    break;
+                case "--baleias":
+                    quantidades.put(PerfilBot.BALEIA, Integer.parseInt(partes[1]));
+                    break;
+                case "--atacantes":
+                    quantidades.put(PerfilBot.ATACANTE, Integer.parseInt(partes[1]));
+                    break;
+                case "--duracao":
+                    duracao = Long.parseLong(partes[1]);
+                    break;
+                case "--espera-ms":
+                    esperaMs = Long.parseLong(partes[1]);
+                    break;
+                case "--saida":
+                    arquivoSaida = partes[1];
+                    break;
+                case "--reservatorio":
+                    comReservatorios = Boolean.parseBoolean(partes[1]);
+                    break;
+                default:
+                    System.err.println("Opção desconhecida: " + partes[0]);
+                    return;
+            }
+        }
+
+        GeradorDeCarga gerador = new GeradorDeCarga(quantidades, duracao, esperaMs);
+        if (comReservatorios) {
+            gerador.ativarReservatorios();
+        }
+        gerador.executar();
+        List<String> divergentes = gerador.auditar();
+        gerador.exibirResultado();
+        System.out.printf("Contas divergentes do livro-razão: %d%n", divergentes.size());
+        gerador.salvarResultado(arquivoSaida, divergentes.size());
+        System.out.println("Resultado gravado em " + arquivoSaida);
+    }
+}
@@ -0,0 +1,126 @@
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latências em nanossegundos com baldes log-lineares.
+ * Cada potência de 2 é dividida em 16 baldes, o que mantém o erro relativo
+ * abaixo de ~6% em qualquer escala usando um array fixo de contadores.
+ * Pode ser alimentado por várias threads ao mesmo tempo.
+ */
+class HistogramaLatencia {
+    private static final int SUB_BALDES_BITS = 4; // 16 baldes por potência de 2.
+    private static final int SUB_BALDES = 1 << SUB_BALDES_BITS;
+    private static final int TOTAL_BALDES = (64 - SUB_BALDES_BITS + 1) * SUB_BALDES;
+
+    private final AtomicLongArray baldes = new AtomicLongArray(TOTAL_BALDES);
+    private final LongAdder total = new LongAdder();
+    private final LongAdder erros = new LongAdder();
+
+    /**
+     * Registra uma medição.
+     *
+     * @param nanos A duração medida em nanossegundos.
+     * @param sucesso Falso se a operação terminou em erro.
+     */
+    public void registrar(long nanos, boolean sucesso) {
+        baldes.incrementAndGet(indice(Math.max(0, nanos)));
+        total.increment();
+        if (!sucesso) {
+            erros.increment();
+        }
+    }
+
+    public long getTotal() {
+        return total.sum();
+    }
+
+    public long getErros() {
+        return erros.sum();
+    }
+
+    /**
+     * Soma as medições de outro histograma a este.
+     *
+     * @param outro O histograma a incorporar.
+     */
+    public void incorporar(HistogramaLatencia outro) {
+        for (int i = 0; i < TOTAL_BALDES; i++) {
+            long c = outro.baldes.get(i);
+            if (c != 0) {
+                baldes.addAndGet(i, c);
+            }
+        }
+        total.add(outro.getTotal());
+        erros.add(outro.getErros());
+    }
+
+    /**
+     * Retorna o valor aproximado do percentil pedido.
+     *
+     * @param percentil Percentil entre 0 e 100 (ex: 99.9).
+     * @return A latência em nanossegundos (meio do balde correspondente), ou 0 sem medições.
+     */
+    public long percentil(double percentil) {
+        long n = 0;
+        long[] copia = new long[TOTAL_BALDES];
+        for (int i = 0; i < TOTAL_BALDES; i++) {
+            copia[i] = baldes.get(i);
+            n += copia[i];
+        }
+        if (n == 0) {
+            return 0;
+        }
+        long alvo = Math.max(1, (long) Math.ceil(n * percentil / 100.0));
+        long acumulado = 0;
+        for (int i = 0; i < TOTAL_BALDES; i++) {
+            acumulado += copia[i];
+            if (acumulado >= alvo) {
+                return valorMedio(i);
+            }
+        }
+        return valorMedio(TOTAL_BALDES - 1);
+    }
+
+    /**
+     * Retorna o maior valor registrado (limite superior do balde mais alto ocupado).
+     *
+     * @return A latência máxima aproximada em nanossegundos.
+     */
+    public long maximo() {
+        for (int i = TOTAL_BALDES - 1; i >= 0; i--) {
+            if (baldes.get(i) != 0) {
+                return limiteInferior(i) + largura(i) - 1;
+            }
+        }
+        return 0;
+    }
+
+    private static int indice(long valor) {
+        if (valor < SUB_BALDES) {
+            return (int) valor;
+        }
+        int expoente = 63 - Long.numberOfLeadingZeros(valor); // >= SUB_BALDES_BITS
+        int sub = (int) ((valor >>> (expoente - SUB_BALDES_BITS)) & (SUB_BALDES - 1));
+        return (expoente - SUB_BALDES_BITS + 1) * SUB_BALDES + sub;
+    }
+
+    private static long limiteInferior(int indice) {
+        if (indice < SUB_BALDES) {
+            return indice;
+        }
+        int expoente = indice / SUB_BALDES + SUB_BALDES_BITS - 1;
+        long sub = indice % SUB_BALDES;
+        return (SUB_BALDES | sub) << (expoente - SUB_BALDES_BITS);
+    }
+
+    private static long largura(int indice) {
+        if (indice < SUB_BALDES) {
+            return 1;
+        }
+        return 1L << (indice / SUB_BALDES - 1);
+    }
+
+    private static long valorMedio(int indice) {
+        return limiteInferior(indice) + largura(indice) / 2;
+    }
+}
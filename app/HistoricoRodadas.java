@@ -0,0 +1,798 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Colunas gravadas para cada rodada.
+ */
+enum ColunaRodada {
+    SLOT, // Tamanho do tabuleiro do slot (3 = fácil, 4 = médio, 5 = difícil).
+    APOSTA, // Valor apostado em centavos.
+    FLAGS, // Bit 0: vitória; bit 1: bônus.
+    PREMIO, // Valor pago em centavos.
+    INSTANTE // Momento da rodada em milissegundos desde a época.
+}
+
+/**
+ * Bloco imutável de rodadas gravado em disco no formato colunar.
+ * Cada coluna é comprimida por quadro de referência: guarda-se o mínimo do bloco
+ * e cada valor é empacotado com os bits necessários para (máximo - mínimo).
+ * O mínimo e o máximo de cada coluna ficam no cabeçalho e servem de índice para
+ * pular blocos inteiros nas consultas.
+ */
+final class BlocoColunar {
+    private static final int MAGICO = 0x43415341; // "CASA"
+    private static final int COLUNAS = ColunaRodada.values().length;
+    private static final int TAMANHO_CABECALHO = 8 + COLUNAS * (8 + 8 + 4 + 4);
+
+    private final File arquivo;
+    private final int linhas;
+    private final long[] minimos = new long[COLUNAS];
+    private final long[] maximos = new long[COLUNAS];
+    private final int[] bits = new int[COLUNAS];
+    private final int[] palavras = new int[COLUNAS];
+
+    private BlocoColunar(File arquivo, int linhas) {
+        this.arquivo = arquivo;
+        this.linhas = linhas;
+    }
+
+    public int getLinhas() {
+        return linhas;
+    }
+
+    public long getMinimo(ColunaRodada coluna) {
+        return minimos[coluna.ordinal()];
+    }
+
+    public long getMaximo(ColunaRodada coluna) {
+        return maximos[coluna.ordinal()];
+    }
+
+    /**
+     * Comprime e grava um bloco.
+     *
+     * @param arquivo O arquivo de destino.
+     * @param colunas Os valores de cada coluna, na ordem de {@link ColunaRodada}.
+     * @param linhas  Quantas posições de cada array são válidas.
+     * @return O bloco gravado.
+     * @throws IOException Se a gravação falhar.
+     */
+    static BlocoColunar gravar(File arquivo, long[][] colunas, int linhas) throws IOException {
+        BlocoColunar bloco = new BlocoColunar(arquivo, linhas);
+        long[][] empacotadas = new long[COLUNAS][];
+        for (int c = 0; c < COLUNAS; c++) {
+            long min = Long.MAX_VALUE;
+            long max = Long.MIN_VALUE;
+            long[] valores = colunas[c];
+            for (int i = 0; i < linhas; i++) {
+                min = Math.min(min, valores[i]);
+                max = Math.max(max, valores[i]);
+            }
+            int largura = 64 - Long.numberOfLeadingZeros(max - min);
+            bloco.minimos[c] = min;
+            bloco.maximos[c] = max;
+            bloco.bits[c] = largura;
+            empacotadas[c] = empacotar(valores, linhas, min, largura);
+            bloco.palavras[c] = empacotadas[c].length;
+        }
+
+        int tamanho = TAMANHO_CABECALHO;
+        for (long[] e : empacotadas) {
+            tamanho += e.length * 8;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(tamanho);
+        buffer.putInt(MAGICO).putInt(linhas);
+        for (int c = 0; c < COLUNAS; c++) {
+            buffer.putLong(bloco.minimos[c]).putLong(bloco.maximos[c]).putInt(bloco.bits[c])
+                    .putInt(bloco.palavras[c]);
+        }
+        for (long[] e : empacotadas) {
+            buffer.asLongBuffer().put(e);
+            buffer.position(buffer.position() + e.length * 8);
+        }
+        buffer.flip();
+        try (RandomAccessFile raf = new RandomAccessFile(arquivo, "rw"); FileChannel canal = raf.getChannel()) {
+            raf.setLength(0);
+            while (buffer.hasRemaining()) {
+                canal.write(buffer);
+            }
+        }
+        return bloco;
+    }
+
+    /**
+     * Lê apenas o cabeçalho (índice de mínimos e máximos) de um bloco.
+     *
+     * @param arquivo O arquivo do bloco.
+     * @return O bloco, pronto para ter colunas lidas sob demanda.
+     * @throws IOException Se a leitura falhar ou o arquivo não for um bloco válido.
+     */
+    static BlocoColunar abrir(File arquivo) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(arquivo, "r")) {
+            ByteBuffer cabecalho = ByteBuffer.allocate(TAMANHO_CABECALHO);
+            raf.getChannel().read(cabecalho, 0);
+            cabecalho.flip();
+            if (cabecalho.remaining() < TAMANHO_CABECALHO || cabecalho.getInt() != MAGICO) {
+                throw new IOException("Bloco inválido: " + arquivo);
+            }
+            BlocoColunar bloco = new BlocoColunar(arquivo, cabecalho.getInt());
+            for (int c = 0; c < COLUNAS; c++) {
+                bloco.minimos[c] = cabecalho.getLong();
+                bloco.maximos[c] = cabecalho.getLong();
+                bloco.bits[c] = cabecalho.getInt();
+                bloco.palavras[c] = cabecalho.getInt();
+            }
+            return bloco;
+        }
+    }
+
+    /**
+     * Abre cursores sobre as colunas pedidas. Os valores são decodificados um a um, direto
+     * das palavras mapeadas do arquivo, sem materializar um array por coluna.
+     *
+     * @param pedidas As colunas necessárias para a consulta.
+     * @return Um array indexado por {@link ColunaRodada#ordinal()}; colunas não pedidas ficam null.
+     */
+    CursorColuna[] cursores(ColunaRodada... pedidas) {
+        CursorColuna[] resultado = new CursorColuna[COLUNAS];
+        try (RandomAccessFile raf = new RandomAccessFile(arquivo, "r"); FileChannel canal = raf.getChannel()) {
+            // O mapeamento continua válido depois que o canal é fechado.
+            MappedByteBuffer mapa = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+            LongBuffer dados = mapa.position(TAMANHO_CABECALHO).slice().asLongBuffer();
+            for (ColunaRodada coluna : pedidas) {
+                int c = coluna.ordinal();
+                int inicio = 0;
+                for (int anterior = 0; anterior < c; anterior++) {
+                    inicio += palavras[anterior];
+                }
+                resultado[c] = new CursorColuna(dados.slice(inicio, palavras[c]), minimos[c], bits[c]);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Erro ao ler bloco " + arquivo + ": " + e.getMessage(), e);
+        }
+        return resultado;
+    }
+
+    private static long[] empacotar(long[] valores, int linhas, long min, int largura) {
+        if (largura == 0) {
+            return new long[0]; // Coluna constante: basta o mínimo do cabeçalho.
+        }
+        long[] saida = new long[(int) (((long) linhas * largura + 63) >>> 6)];
+        long posicao = 0;
+        for (int i = 0; i < linhas; i++) {
+            long v = valores[i] - min;
+            int palavra = (int) (posicao >>> 6);
+            int deslocamento = (int) (posicao & 63);
+            saida[palavra] |= v << deslocamento;
+            if (deslocamento + largura > 64) {
+                saida[palavra + 1] |= v >>> (64 - deslocamento);
+            }
+            posicao += largura;
+        }
+        return saida;
+    }
+}
+
+/**
+ * Leitura sequencial de uma coluna comprimida de um {@link BlocoColunar}.
+ */
+final class CursorColuna {
+    private final LongBuffer palavras;
+    private final long minimo;
+    private final int largura;
+    private final long mascara;
+    private long posicao; // Em bits, a partir do início da coluna.
+
+    CursorColuna(LongBuffer palavras, long minimo, int largura) {
+        this.palavras = palavras;
+        this.minimo = minimo;
+        this.largura = largura;
+        this.mascara = largura == 64 ? -1L : (1L << largura) - 1;
+    }
+
+    /**
+     * Decodifica o próximo valor da coluna.
+     *
+     * @return O valor da próxima linha.
+     */
+    long proximo() {
+        if (largura == 0) {
+            return minimo; // Coluna constante.
+        }
+        int palavra = (int) (posicao >>> 6);
+        int deslocamento = (int) (posicao & 63);
+        long v = palavras.get(palavra) >>> deslocamento;
+        if (deslocamento + largura > 64) {
+            v |= palavras.get(palavra + 1) << (64 - deslocamento);
+        }
+        posicao += largura;
+        return (v & mascara) + minimo;
+    }
+}
+
+/**
+ * Totais de um slot em um dia.
+ */
+final class ResumoSlotDia {
+    private final int slot;
+    private final long dia; // Dias desde 1970-01-01 (UTC).
+    private long rodadas;
+    private long apostadoCentavos;
+    private long pagoCentavos;
+    private long bonus;
+
+    ResumoSlotDia(int slot, long dia) {
+        this.slot = slot;
+        this.dia = dia;
+    }
+
+    void somar(long rodadas, long apostado, long pago, long bonus) {
+        this.rodadas += rodadas;
+        this.apostadoCentavos += apostado;
+        this.pagoCentavos += pago;
+        this.bonus += bonus;
+    }
+
+    public int getSlot() {
+        return slot;
+    }
+
+    public long getDia() {
+        return dia;
+    }
+
+    public long getRodadas() {
+        return rodadas;
+    }
+
+    public long getApostadoCentavos() {
+        return apostadoCentavos;
+    }
+
+    public long getPagoCentavos() {
+        return pagoCentavos;
+    }
+
+    public long getBonus() {
+        return bonus;
+    }
+
+    /**
+     * Retorna o retorno ao jogador (RTP): total pago dividido pelo total apostado.
+     *
+     * @return O RTP, ou 0 se nada foi apostado.
+     */
+    public double getRtp() {
+        return apostadoCentavos == 0 ? 0 : (double) pagoCentavos / apostadoCentavos;
+    }
+
+    /**
+     * Retorna a fração das rodadas que terminaram em bônus.
+     *
+     * @return A frequência de bônus.
+     */
+    public double getFrequenciaBonus() {
+        return rodadas == 0 ? 0 : (double) bonus / rodadas;
+    }
+}
+
+/**
+ * Histórico de rodadas em armazenamento colunar.
+ * As rodadas são acumuladas em memória e gravadas em blocos de tamanho fixo em um
+ * diretório. As consultas leem só as colunas necessárias, pulam blocos pelo índice
+ * de mínimos e máximos e agregam os blocos em paralelo, decodificando as colunas
+ * valor a valor sem materializá-las.
+ *
+ * <p>
+ * Quem registra rodadas nunca espera o disco: blocos cheios são entregues a uma thread
+ * gravadora. A mesma thread acrescenta as rodadas pendentes a um diário
+ * ({@code pendentes-N.dat}, do bloco N ainda em formação) a cada segundo, e o diário é
+ * apagado quando o bloco é gravado. Ao abrir o histórico, os diários sem bloco são
+ * recuperados, então uma queda perde no máximo o último segundo de rodadas.
+ *
+ * <p>
+ * Deve ser fechado ({@link #close()}) quando não for mais usado: o fechamento grava as
+ * rodadas pendentes, encerra a thread gravadora e retira o gancho de encerramento que
+ * descarrega o histórico se a JVM terminar antes.
+ */
+class HistoricoRodadas implements AutoCloseable {
+    private static final int LINHAS_POR_BLOCO = 1 << 16;
+    private static final long MILLIS_POR_DIA = 86_400_000L;
+    private static final int CELULAS_MAXIMAS_DENSAS = 1 << 16; // Acima disso, agrega em mapa.
+    private static final long INTERVALO_DIARIO_MILLIS = 1000; // Frequência de gravação das rodadas pendentes.
+    private static final int COLUNAS = ColunaRodada.values().length;
+    private static final int BYTES_POR_LINHA = COLUNAS * 8; // Tamanho de uma rodada no diário.
+
+    private final File diretorio;
+    private final List<BlocoColunar> blocos = Collections.synchronizedList(new ArrayList<>());
+    private final ScheduledThreadPoolExecutor gravador; // Única thread que escreve no diretório.
+    private final Thread ganchoEncerramento = new Thread(this::descarregar, "historico-descarga");
+    private boolean fechado; // Protegido pelo monitor do histórico.
+    private long[][] pendentes = new long[COLUNAS][LINHAS_POR_BLOCO]; // Protegido pelo monitor do histórico.
+    private long[][] livre; // Buffer já gravado, devolvido para reuso (protegido pelo monitor).
+    private int linhasPendentes; // Protegido pelo monitor do histórico.
+    private int linhasNoDiario; // Quantas das pendentes já foram enviadas ao diário.
+    private int proximoBloco; // Número do bloco em formação.
+
+    /**
+     * Construtor da classe HistoricoRodadas. Carrega o índice dos blocos já existentes,
+     * recupera as rodadas dos diários e inicia a thread gravadora, que só termina em {@link #close()}.
+     *
+     * @param caminhoDiretorio O diretório onde os blocos são gravados.
+     */
+    public HistoricoRodadas(String caminhoDiretorio) {
+        this.diretorio = new File(caminhoDiretorio);
+        if (!diretorio.exists() && !diretorio.mkdirs()) {
+            System.err.println("Erro ao criar diretório do histórico: " + caminhoDiretorio);
+        }
+        File[] arquivos = diretorio.listFiles((d, nome) -> nome.startsWith("bloco-") && nome.endsWith(".col"));
+        if (arquivos != null) {
+            Arrays.sort(arquivos);
+            for (File arquivo : arquivos) {
+                try {
+                    blocos.add(BlocoColunar.abrir(arquivo));
+                } catch (IOException e) {
+                    System.err.println("Erro ao abrir bloco do histórico: " + e.getMessage());
+                }
+                proximoBloco = Math.max(proximoBloco, numeroDoArquivo(arquivo) + 1);
+            }
+        }
+        recuperarDiarios();
+
+        this.gravador = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, "historico-gravador");
+            t.setDaemon(true); // A descarga final é feita por close() ou pelo gancho de encerramento.
+            return t;
+        });
+        if (linhasPendentes == LINHAS_POR_BLOCO) {
+            synchronized (this) {
+                entregarBloco(); // A queda ocorreu antes de o bloco cheio ser gravado.
+            }
+        }
+        gravador.scheduleWithFixedDelay(this::gravarDiario, INTERVALO_DIARIO_MILLIS, INTERVALO_DIARIO_MILLIS,
+                TimeUnit.MILLISECONDS);
+        Runtime.getRuntime().addShutdownHook(ganchoEncerramento);
+    }
+
+    /**
+     * Registra o resultado de uma rodada.
+     *
+     * @param slot     O tamanho do tabuleiro do slot.
+     * @param aposta   O valor apostado, em centavos.
+     * @param vitoria  Se a rodada foi uma vitória.
+     * @param bonus    Se a rodada deu bônus.
+     * @param premio   O valor pago ao jogador, em centavos.
+     * @param instante O momento da rodada em milissegundos.
+     * @throws RuntimeException Se o histórico já tiver sido fechado.
+     */
+    public synchronized void registrar(int slot, long aposta, boolean vitoria, boolean bonus, long premio,
+            long instante) {
+        if (fechado) {
+            throw new RuntimeException("Histórico de rodadas já fechado.");
+        }
+        int i = linhasPendentes++;
+        pendentes[ColunaRodada.SLOT.ordinal()][i] = slot;
+        pendentes[ColunaRodada.APOSTA.ordinal()][i] = aposta;
+        pendentes[ColunaRodada.FLAGS.ordinal()][i] = (vitoria ? 1 : 0) | (bonus ? 2 : 0);
+        pendentes[ColunaRodada.PREMIO.ordinal()][i] = premio;
+        pendentes[ColunaRodada.INSTANTE.ordinal()][i] = instante;
+        if (linhasPendentes == LINHAS_POR_BLOCO) {
+            entregarBloco(); // Só troca de buffer: a gravação fica com a thread gravadora.
+        }
+    }
+
+    /**
+     * Grava em disco as rodadas ainda em memória como um novo bloco e espera a thread
+     * gravadora terminar todos os blocos entregues até aqui. Não faz nada depois do fechamento.
+     */
+    public void descarregar() {
+        Future<?> gravacao;
+        synchronized (this) {
+            if (fechado) {
+                return; // O fechamento já gravou tudo.
+            }
+            gravacao = linhasPendentes == 0 ? gravador.submit(() -> { }) : entregarBloco();
+        }
+        try {
+            gravacao.get(); // A fila da thread gravadora é FIFO: os blocos anteriores já foram gravados.
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            System.err.println("Erro ao gravar bloco do histórico: " + e.getCause().getMessage());
+        }
+    }
+
+    /**
+     * Grava as rodadas pendentes, encerra a thread gravadora e retira o gancho de
+     * encerramento. Chamadas repetidas não fazem nada.
+     */
+    @Override
+    public void close() {
+        descarregar();
+        synchronized (this) {
+            if (fechado) {
+                return;
+            }
+            fechado = true; // Nenhuma rodada nova entra depois da última descarga.
+            if (linhasPendentes > 0) {
+                entregarBloco(); // Rodadas registradas entre a descarga e o fechamento.
+            }
+        }
+        gravador.shutdown(); // A tarefa periódica do diário é cancelada; os blocos entregues são gravados.
+        try {
+            if (!gravador.awaitTermination(1, TimeUnit.MINUTES)) {
+                System.err.println("Tempo esgotado ao gravar o histórico de rodadas.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            Runtime.getRuntime().removeShutdownHook(ganchoEncerramento);
+        } catch (IllegalStateException e) {
+            // A JVM já está encerrando: o gancho não é mais necessário e não pode ser retirado.
+        }
+    }
+
+    /**
+     * Passa as rodadas pendentes à thread gravadora e começa um bloco novo.
+     * Deve ser chamado com o monitor do histórico.
+     *
+     * @return A gravação agendada.
+     */
+    private Future<?> entregarBloco() {
+        long[][] cheio = pendentes;
+        int linhas = linhasPendentes;
+        int numero = proximoBloco++;
+        pendentes = livre != null ? livre : new long[COLUNAS][LINHAS_POR_BLOCO];
+        livre = null;
+        linhasPendentes = 0;
+        linhasNoDiario = 0;
+        return gravador.submit(() -> gravarBloco(cheio, linhas, numero));
+    }
+
+    /**
+     * Grava um bloco e apaga o diário correspondente. Executado pela thread gravadora.
+     */
+    private void gravarBloco(long[][] colunas, int linhas, int numero) {
+        try {
+            blocos.add(BlocoColunar.gravar(arquivoBloco(numero), colunas, linhas));
+            Files.deleteIfExists(arquivoDiario(numero).toPath());
+        } catch (IOException e) {
+            System.err.println("Erro ao gravar bloco do histórico: " + e.getMessage());
+        }
+        synchronized (this) {
+            livre = colunas; // O próximo bloco reaproveita o buffer.
+        }
+    }
+
+    /**
+     * Acrescenta ao diário as rodadas pendentes que ainda não estão nele.
+     * Executado periodicamente pela thread gravadora.
+     */
+    private void gravarDiario() {
+        ByteBuffer novas;
+        int numero;
+        synchronized (this) { // Só a cópia das linhas novas acontece com o monitor.
+            if (linhasNoDiario == linhasPendentes) {
+                return;
+            }
+            numero = proximoBloco;
+            novas = ByteBuffer.allocate((linhasPendentes - linhasNoDiario) * BYTES_POR_LINHA);
+            for (int i = linhasNoDiario; i < linhasPendentes; i++) {
+                for (int c = 0; c < COLUNAS; c++) {
+                    novas.putLong(pendentes[c][i]);
+                }
+            }
+            linhasNoDiario = linhasPendentes;
+        }
+        novas.flip();
+        try (FileChannel canal = FileChannel.open(arquivoDiario(numero).toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            while (novas.hasRemaining()) {
+                canal.write(novas);
+            }
+        } catch (IOException e) {
+            System.err.println("Erro ao gravar diário do histórico: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Recupera as rodadas de diários cujo bloco não chegou a ser gravado. O diário mais
+     * recente volta a ser o bloco em formação; os anteriores (de descargas parciais)
+     * são gravados como blocos na hora.
+     */
+    private void recuperarDiarios() {
+        File[] diarios = diretorio.listFiles((d, nome) -> nome.startsWith("pendentes-") && nome.endsWith(".dat"));
+        if (diarios == null) {
+            return;
+        }
+        Arrays.sort(diarios);
+        for (int d = 0; d < diarios.length; d++) {
+            File diario = diarios[d];
+            int numero = numeroDoArquivo(diario);
+            try {
+                if (arquivoBloco(numero).exists()) {
+                    Files.delete(diario.toPath()); // O bloco foi gravado; faltou só apagar o diário.
+                    continue;
+                }
+                ByteBuffer dados = ByteBuffer.wrap(Files.readAllBytes(diario.toPath()));
+                int linhas = Math.min(LINHAS_POR_BLOCO, dados.remaining() / BYTES_POR_LINHA); // Ignora linha parcial.
+                for (int i = 0; i < linhas; i++) {
+                    for (int c = 0; c < COLUNAS; c++) {
+                        pendentes[c][i] = dados.getLong();
+                    }
+                }
+                proximoBloco = Math.max(proximoBloco, numero);
+                if (d < diarios.length - 1) {
+                    blocos.add(BlocoColunar.gravar(arquivoBloco(numero), pendentes, linhas));
+                    Files.delete(diario.toPath());
+                    proximoBloco = numero + 1;
+                } else {
+                    linhasPendentes = linhas;
+                    linhasNoDiario = linhas; // Já estão no diário deste bloco.
+                }
+            } catch (IOException e) {
+                System.err.println("Erro ao recuperar diário do histórico: " + e.getMessage());
+            }
+        }
+    }
+
+    private File arquivoBloco(int numero) {
+        return new File(diretorio, String.format("bloco-%09d.col", numero));
+    }
+
+    private File arquivoDiario(int numero) {
+        return new File(diretorio, String.format("pendentes-%09d.dat", numero));
+    }
+
+    private static int numeroDoArquivo(File arquivo) {
+        String nome = arquivo.getName();
+        return Integer.parseInt(nome.substring(nome.indexOf('-') + 1, nome.lastIndexOf('.')));
+    }
+
+    /**
+     * Retorna o total de rodadas já gravadas em disco.
+     *
+     * @return A soma das linhas de todos os blocos.
+     */
+    public long totalRodadas() {
+        long total = 0;
+        for (BlocoColunar bloco : snapshotBlocos()) {
+            total += bloco.getLinhas();
+        }
+        return total;
+    }
+
+    /**
+     * Calcula rodadas, total apostado, total pago e bônus por slot e por dia.
+     *
+     * @param inicio Início do período em milissegundos (inclusivo).
+     * @param fim    Fim do período em milissegundos (exclusivo).
+     * @return Os resumos ordenados por slot e dia.
+     */
+    public List<ResumoSlotDia> resumoPorSlotPorDia(long inicio, long fim) {
+        Map<Long, ResumoSlotDia> total = snapshotBlocos().parallelStream()
+                .filter(b -> b.getMaximo(ColunaRodada.INSTANTE) >= inicio && b.getMinimo(ColunaRodada.INSTANTE) < fim)
+                .map(b -> agregarBloco(b, inicio, fim))
+                .reduce(new TreeMap<>(), HistoricoRodadas::mesclar, HistoricoRodadas::mesclar);
+        return new ArrayList<>(total.values());
+    }
+
+    /**
+     * Calcula a distribuição dos prêmios de um slot em múltiplos da aposta.
+     *
+     * @param slot O tamanho do tabuleiro do slot.
+     * @return Mapa de multiplicador pago (0 = derrota) para número de rodadas.
+     */
+    public Map<Long, Long> distribuicaoPremios(int slot) {
+        return snapshotBlocos().parallelStream()
+                .filter(b -> b.getMinimo(ColunaRodada.SLOT) <= slot && b.getMaximo(ColunaRodada.SLOT) >= slot)
+                .map(b -> distribuicaoBloco(b, slot))
+                .reduce(new TreeMap<>(), (a, b) -> {
+                    Map<Long, Long> soma = new TreeMap<>(a);
+                    b.forEach((k, v) -> soma.merge(k, v, Long::sum));
+                    return soma;
+                });
+    }
+
+    private List<BlocoColunar> snapshotBlocos() {
+        synchronized (blocos) {
+            return new ArrayList<>(blocos);
+        }
+    }
+
+    private static Map<Long, ResumoSlotDia> agregarBloco(BlocoColunar bloco, long inicio, long fim) {
+        CursorColuna[] colunas = bloco.cursores(ColunaRodada.SLOT, ColunaRodada.APOSTA, ColunaRodada.FLAGS,
+                ColunaRodada.PREMIO, ColunaRodada.INSTANTE);
+        CursorColuna slots = colunas[ColunaRodada.SLOT.ordinal()];
+        CursorColuna apostas = colunas[ColunaRodada.APOSTA.ordinal()];
+        CursorColuna flags = colunas[ColunaRodada.FLAGS.ordinal()];
+        CursorColuna premios = colunas[ColunaRodada.PREMIO.ordinal()];
+        CursorColuna instantes = colunas[ColunaRodada.INSTANTE.ordinal()];
+        int n = bloco.getLinhas();
+
+        long slotMin = bloco.getMinimo(ColunaRodada.SLOT);
+        int faixaSlots = (int) (bloco.getMaximo(ColunaRodada.SLOT) - slotMin + 1);
+        long diaMin = Math.floorDiv(bloco.getMinimo(ColunaRodada.INSTANTE), MILLIS_POR_DIA);
+        long faixaDias = Math.floorDiv(bloco.getMaximo(ColunaRodada.INSTANTE), MILLIS_POR_DIA) - diaMin + 1;
+        if ((long) faixaSlots * faixaDias > CELULAS_MAXIMAS_DENSAS) {
+            return agregarBlocoEsparso(n, slots, apostas, flags, premios, instantes, inicio, fim);
+        }
+
+        // Células densas [slot][dia]: o laço só faz aritmética sobre arrays primitivos.
+        int celulas = (int) (faixaSlots * faixaDias);
+        long[] rodadas = new long[celulas];
+        long[] apostado = new long[celulas];
+        long[] pago = new long[celulas];
+        long[] bonus = new long[celulas];
+        for (int i = 0; i < n; i++) {
+            // Todas as colunas avançam juntas, mesmo nas linhas fora do período.
+            long t = instantes.proximo();
+            long slot = slots.proximo();
+            long aposta = apostas.proximo();
+            long premio = premios.proximo();
+            long flag = flags.proximo();
+            if (t < inicio || t >= fim) {
+                continue;
+            }
+            int celula = (int) ((slot - slotMin) * faixaDias + (Math.floorDiv(t, MILLIS_POR_DIA) - diaMin));
+            rodadas[celula]++;
+            apostado[celula] += aposta;
+            pago[celula] += premio;
+            bonus[celula] += (flag >>> 1) & 1;
+        }
+
+        Map<Long, ResumoSlotDia> resultado = new TreeMap<>();
+        for (int celula = 0; celula < celulas; celula++) {
+            if (rodadas[celula] == 0) {
+                continue;
+            }
+            int slot = (int) (slotMin + celula / faixaDias);
+            long dia = diaMin + celula % faixaDias;
+            ResumoSlotDia resumo = new ResumoSlotDia(slot, dia);
+            resumo.somar(rodadas[celula], apostado[celula], pago[celula], bonus[celula]);
+            resultado.put(chave(slot, dia), resumo);
+        }
+        return resultado;
+    }
+
+    private static Map<Long, ResumoSlotDia> agregarBlocoEsparso(int n, CursorColuna slots, CursorColuna apostas,
+            CursorColuna flags, CursorColuna premios, CursorColuna instantes, long inicio, long fim) {
+        Map<Long, ResumoSlotDia> resultado = new TreeMap<>();
+        for (int i = 0; i < n; i++) {
+            long t = instantes.proximo();
+            int slot = (int) slots.proximo();
+            long aposta = apostas.proximo();
+            long premio = premios.proximo();
+            long flag = flags.proximo();
+            if (t < inicio || t >= fim) {
+                continue;
+            }
+            long dia = Math.floorDiv(t, MILLIS_POR_DIA);
+            resultado.computeIfAbsent(chave(slot, dia), k -> new ResumoSlotDia(slot, dia))
+                    .somar(1, aposta, premio, (flag >>> 1) & 1);
+        }
+        return resultado;
+    }
+
+    private static Map<Long, Long> distribuicaoBloco(BlocoColunar bloco, int slot) {
+        CursorColuna[] colunas = bloco.cursores(ColunaRodada.SLOT, ColunaRodada.APOSTA, ColunaRodada.PREMIO);
+        CursorColuna slots = colunas[ColunaRodada.SLOT.ordinal()];
+        CursorColuna apostas = colunas[ColunaRodada.APOSTA.ordinal()];
+        CursorColuna premios = colunas[ColunaRodada.PREMIO.ordinal()];
+        long[] multiplos = new long[bloco.getLinhas()];
+        int n = 0;
+        for (int i = 0; i < multiplos.length; i++) {
+            long s = slots.proximo();
+            long aposta = apostas.proximo();
+            long premio = premios.proximo();
+            if (s == slot && aposta > 0) {
+                multiplos[n++] = premio / aposta;
+            }
+        }
+        // Poucos valores distintos: ordenar e contar sequências evita um mapa por linha.
+        Arrays.sort(multiplos, 0, n);
+        Map<Long, Long> resultado = new TreeMap<>();
+        int i = 0;
+        while (i < n) {
+            int j = i;
+            while (j < n && multiplos[j] == multiplos[i]) {
+                j++;
+            }
+            resultado.put(multiplos[i], (long) (j - i));
+            i = j;
+        }
+        return resultado;
+    }
+
+    private static Map<Long, ResumoSlotDia> mesclar(Map<Long, ResumoSlotDia> a, Map<Long, ResumoSlotDia> b) {
+        Map<Long, ResumoSlotDia> soma = new TreeMap<>();
+        for (Map<Long, ResumoSlotDia> parte : List.of(a, b)) {
+            for (Map.Entry<Long, ResumoSlotDia> e : parte.entrySet()) {
+                ResumoSlotDia r = e.getValue();
+                soma.computeIfAbsent(e.getKey(), k -> new ResumoSlotDia(r.getSlot(), r.getDia()))
+                        .somar(r.getRodadas(), r.getApostadoCentavos(), r.getPagoCentavos(), r.getBonus());
+            }
+        }
+        return soma;
+    }
+
+    private static long chave(int slot, long dia) {
+        return ((long) slot << 32) | (dia & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Ferramenta de linha de comando para gerar rodadas sintéticas e consultar o histórico.
+     * Uso: {@code java HistoricoRodadas gerar <diretorio> <rodadas>} ou
+     * {@code java HistoricoRodadas consultar <diretorio>}.
+     *
+     * @param args Os argumentos da linha de comando.
+     */
+    public static void main(String[] args) {
+        boolean gerar = args.length == 3 && args[0].equals("gerar");
+        if (!gerar && !(args.length == 2 && args[0].equals("consultar"))) {
+            System.err.println("Uso: java HistoricoRodadas gerar <diretorio> <rodadas> | consultar <diretorio>");
+            return;
+        }
+        try (HistoricoRodadas historico = new HistoricoRodadas(args[1])) {
+            if (gerar) {
+                gerar(historico, Long.parseLong(args[2]));
+                System.out.printf("%s rodadas gravadas em %s%n", args[2], args[1]);
+            } else {
+                consultar(historico);
+            }
+        }
+    }
+
+    /**
+     * Registra rodadas sintéticas, espaçadas de 10 ms até o instante atual.
+     */
+    private static void gerar(HistoricoRodadas historico, long rodadas) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int[][] slots = { { 3, 1, 10, 10 }, { 4, 10, 30, 50 }, { 5, 30, 50, 100 } }; // tamanho, min, max, mult.
+        long agora = System.currentTimeMillis();
+        for (long i = 0; i < rodadas; i++) {
+            int[] s = slots[random.nextInt(slots.length)];
+            long aposta = Dinheiro.deReais(random.nextInt(s[1], s[2] + 1));
+            double sorteio = random.nextDouble();
+            boolean vitoria = sorteio < 0.01;
+            boolean bonus = !vitoria && sorteio < 0.03;
+            long premio = vitoria ? aposta * s[3] : bonus ? aposta : 0;
+            historico.registrar(s[0], aposta, vitoria, bonus, premio, agora - (rodadas - i) * 10);
+        }
+    }
+
+    /**
+     * Imprime o resumo por slot e por dia de todo o histórico e o tempo da agregação.
+     */
+    private static void consultar(HistoricoRodadas historico) {
+        long inicio = System.nanoTime();
+        List<ResumoSlotDia> resumos = historico.resumoPorSlotPorDia(Long.MIN_VALUE, Long.MAX_VALUE);
+        long duracao = System.nanoTime() - inicio;
+        System.out.printf("%-6s %-12s %14s %10s %10s%n", "Slot", "Dia", "Rodadas", "RTP", "Bônus");
+        for (ResumoSlotDia r : resumos) {
+            System.out.printf("%-6d %-12s %14d %9.2f%% %9.2f%%%n", r.getSlot(),
+                    java.time.LocalDate.ofEpochDay(r.getDia()), r.getRodadas(), r.getRtp() * 100,
+                    r.getFrequenciaBonus() * 100);
+        }
+        System.out.printf("%d rodadas agregadas em %.1f ms%n", historico.totalRodadas(), duracao / 1e6);
+    }
+}
@@ -0,0 +1,177 @@
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.lang.ref.WeakReference;
+import java.util.PriorityQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Índice dos jogadores menores de idade ordenado pela data em que farão 18 anos.
+ * Um único temporizador dorme até o próximo aniversário de maioridade e, ao
+ * acordar, libera apenas os jogadores do topo da fila cuja data já chegou.
+ * Jogadores maiores de idade nunca entram no índice.
+ *
+ * <p>
+ * Todos os índices compartilham uma única thread de agendamento. A tarefa agendada
+ * guarda apenas uma referência fraca ao índice, então um sistema descartado sem
+ * {@link #encerrar()} não fica preso na memória até a próxima verificação.
+ */
+class IndiceMaioridade {
+    private static final long ESPERA_MAXIMA_MILLIS = TimeUnit.HOURS.toMillis(1); // Revisão periódica do relógio.
+    private static final ScheduledThreadPoolExecutor AGENDADOR = criarAgendador();
+
+    private final Clock relogio;
+    private final PriorityQueue<Entrada> fila = new PriorityQueue<>();
+    private ScheduledFuture<?> proximaVerificacao; // Protegido pelo monitor do índice.
+
+    /**
+     * Construtor da classe IndiceMaioridade usando o relógio do sistema.
+     */
+    public IndiceMaioridade() {
+        this(Clock.systemDefaultZone());
+    }
+
+    /**
+     * Construtor da classe IndiceMaioridade.
+     *
+     * @param relogio O relógio que define o dia atual.
+     */
+    public IndiceMaioridade(Clock relogio) {
+        this.relogio = relogio;
+    }
+
+    private static ScheduledThreadPoolExecutor criarAgendador() {
+        ScheduledThreadPoolExecutor agendador = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, "indice-maioridade");
+            t.setDaemon(true); // Não impede o encerramento do jogo.
+            return t;
+        });
+        agendador.setRemoveOnCancelPolicy(true); // Reagendamentos não acumulam tarefas canceladas.
+        return agendador;
+    }
+
+    /**
+     * Retorna o dia atual segundo o relógio do índice.
+     *
+     * @return A data de hoje.
+     */
+    public LocalDate getHoje() {
+        return LocalDate.now(relogio);
+    }
+
+    /**
+     * Adiciona um jogador ao índice. Se ele já for maior de idade, o status é
+     * atualizado na hora e nada é guardado.
+     *
+     * @param jogador O jogador a acompanhar.
+     */
+    public synchronized void registrar(Jogador jogador) {
+        LocalDate dataMaioridade = Jogador.calcularDataMaioridade(jogador.getDataDeNascimento());
+        if (!getHoje().isBefore(dataMaioridade)) {
+            jogador.setStatusMaiorDeIdade(true);
+            return;
+        }
+        jogador.setStatusMaiorDeIdade(false);
+        Entrada topoAnterior = fila.peek();
+        fila.add(new Entrada(dataMaioridade, jogador));
+        if (topoAnterior == null || dataMaioridade.isBefore(topoAnterior.dataMaioridade)) {
+            reagendar(); // O novo jogador fará 18 anos antes de todos os outros.
+        }
+    }
+
+    /**
+     * Retira do índice um jogador que saiu do sistema ou foi substituído por outra instância
+     * (por exemplo, ao importar a mesma conta de novo). Jogadores fora do índice são ignorados.
+     *
+     * @param jogador O jogador que não deve mais ser acompanhado.
+     */
+    public synchronized void descartar(Jogador jogador) {
+        Entrada topoAnterior = fila.peek();
+        if (fila.removeIf(e -> e.jogador == jogador) && fila.peek() != topoAnterior) {
+            reagendar();
+        }
+    }
+
+    /**
+     * Libera todos os jogadores cuja data de maioridade já chegou.
+     *
+     * @return Quantos jogadores passaram a ser maiores de idade.
+     */
+    public synchronized int avancar() {
+        LocalDate hoje = getHoje();
+        int liberados = 0;
+        while (!fila.isEmpty() && !hoje.isBefore(fila.peek().dataMaioridade)) {
+            fila.poll().jogador.setStatusMaiorDeIdade(true);
+            liberados++;
+        }
+        reagendar();
+        return liberados;
+    }
+
+    /**
+     * Retorna quantos menores de idade estão sendo acompanhados.
+     *
+     * @return O tamanho do índice.
+     */
+    public synchronized int tamanho() {
+        return fila.size();
+    }
+
+    /**
+     * Cancela a verificação agendada deste índice. A thread compartilhada continua
+     * atendendo os demais índices.
+     */
+    public synchronized void encerrar() {
+        if (proximaVerificacao != null) {
+            proximaVerificacao.cancel(false);
+            proximaVerificacao = null;
+        }
+    }
+
+    /**
+     * Agenda a próxima verificação para o início do dia do aniversário mais próximo.
+     * Deve ser chamado com o monitor do índice.
+     */
+    private void reagendar() {
+        if (proximaVerificacao != null) {
+            proximaVerificacao.cancel(false);
+            proximaVerificacao = null;
+        }
+        Entrada topo = fila.peek();
+        if (topo == null) {
+            return;
+        }
+        Instant inicioDoDia = topo.dataMaioridade.atStartOfDay(relogio.getZone()).toInstant();
+        long espera = Duration.between(relogio.instant(), inicioDoDia).toMillis();
+        // Limita a espera para acompanhar ajustes no relógio do sistema.
+        espera = Math.max(0, Math.min(espera, ESPERA_MAXIMA_MILLIS));
+        WeakReference<IndiceMaioridade> referencia = new WeakReference<>(this);
+        proximaVerificacao = AGENDADOR.schedule(() -> {
+            IndiceMaioridade indice = referencia.get();
+            if (indice != null) {
+                indice.avancar();
+            }
+        }, espera, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Par (data de maioridade, jogador) ordenado pela data.
+     */
+    private static final class Entrada implements Comparable<Entrada> {
+        private final LocalDate dataMaioridade;
+        private final Jogador jogador;
+
+        Entrada(LocalDate dataMaioridade, Jogador jogador) {
+            this.dataMaioridade = dataMaioridade;
+            this.jogador = jogador;
+        }
+
+        @Override
+        public int compareTo(Entrada outra) {
+            return dataMaioridade.compareTo(outra.dataMaioridade);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Visão consistente de todos os jogadores em um instante, para salvamentos e relatórios.
+ * Abrir custa O(1) e as threads de jogo continuam alterando os saldos normalmente; o
+ * instantâneo continua vendo os valores do momento em que foi aberto. Deve ser fechado
+ * (try-with-resources) para que as versões antigas possam ser descartadas.
+ */
+class InstantaneoJogadores implements AutoCloseable, Iterable<EstadoJogador> {
+    private final VersoesJogadores versoes;
+    private final long versao;
+    private final AtomicBoolean fechado = new AtomicBoolean();
+
+    InstantaneoJogadores(VersoesJogadores versoes, long versao) {
+        this.versoes = versoes;
+        this.versao = versao;
+    }
+
+    public long getVersao() {
+        return versao;
+    }
+
+    /**
+     * Percorre os jogadores que existiam no instante, na ordem de cadastro.
+     *
+     * @return Um iterador sobre o estado de cada jogador no instante.
+     */
+    @Override
+    public Iterator<EstadoJogador> iterator() {
+        Iterator<Jogador> membros = versoes.membros();
+        return new Iterator<EstadoJogador>() {
+            private EstadoJogador proximo = avancar();
+
+            private EstadoJogador avancar() {
+                while (membros.hasNext()) {
+                    EstadoJogador estado = membros.next().estadoEm(versao);
+                    if (estado != null && !estado.removido) { // Null: o jogador entrou depois do instante.
+                        return estado;
+                    }
+                }
+                return null;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return proximo != null;
+            }
+
+            @Override
+            public EstadoJogador next() {
+                if (proximo == null) {
+                    throw new NoSuchElementException();
+                }
+                EstadoJogador atual = proximo;
+                proximo = avancar();
+                return atual;
+            }
+        };
+    }
+
+    /**
+     * Soma os saldos de todos os jogadores no instante.
+     *
+     * @return O total, em centavos.
+     */
+    public long somarSaldosCentavos() {
+        long total = 0;
+        for (EstadoJogador estado : this) {
+            total += estado.saldoCentavos;
+        }
+        return total;
+    }
+
+    @Override
+    public void close() {
+        if (fechado.compareAndSet(false, true)) {
+            versoes.fechar(versao);
+        }
+    }
+}
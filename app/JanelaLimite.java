@@ -0,0 +1,25 @@
+/**
+ * Janelas móveis dos limites. Cada janela é dividida em baldes; o limite desliza
+ * de balde em balde, então a borda da janela tem a precisão de um balde.
+ */
+enum JanelaLimite {
+    HORA(3_600_000L, 12), // Baldes de 5 minutos.
+    DIA(86_400_000L, 24), // Baldes de 1 hora.
+    SEMANA(604_800_000L, 7); // Baldes de 1 dia.
+
+    private final long duracaoMillis;
+    private final int baldes;
+
+    JanelaLimite(long duracaoMillis, int baldes) {
+        this.duracaoMillis = duracaoMillis;
+        this.baldes = baldes;
+    }
+
+    public long getDuracaoMillis() {
+        return duracaoMillis;
+    }
+
+    public int getBaldes() {
+        return baldes;
+    }
+}
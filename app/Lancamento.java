@@ -0,0 +1,65 @@
+/**
+ * Registro imutável de uma operação aplicada à carteira de um jogador.
+ */
+final class Lancamento {
+    private final long sequencia; // Posição global do lançamento no livro-razão.
+    private final String chaveIdempotencia;
+    private final String email;
+    private final TipoLancamento tipo;
+    private final long valor; // Em centavos.
+    private final long instante; // Momento da aplicação, em milissegundos desde a época.
+
+    /**
+     * Construtor da classe Lancamento.
+     *
+     * @param sequencia         A posição global do lançamento.
+     * @param chaveIdempotencia A chave informada pelo chamador.
+     * @param email             O email do jogador afetado.
+     * @param tipo              O tipo da operação.
+     * @param valor             O valor da operação, em centavos (positivo; a abertura pode ser zero).
+     * @param instante          O momento da aplicação.
+     */
+    public Lancamento(long sequencia, String chaveIdempotencia, String email, TipoLancamento tipo, long valor,
+            long instante) {
+        this.sequencia = sequencia;
+        this.chaveIdempotencia = chaveIdempotencia;
+        this.email = email;
+        this.tipo = tipo;
+        this.valor = valor;
+        this.instante = instante;
+    }
+
+    // Getters para os atributos.
+    public long getSequencia() {
+        return sequencia;
+    }
+
+    public String getChaveIdempotencia() {
+        return chaveIdempotencia;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public TipoLancamento getTipo() {
+        return tipo;
+    }
+
+    public long getValor() {
+        return valor;
+    }
+
+    public long getInstante() {
+        return instante;
+    }
+
+    /**
+     * Retorna o efeito do lançamento sobre o saldo (positivo para crédito).
+     *
+     * @return O valor com o sinal do tipo de operação.
+     */
+    public long getValorComSinal() {
+        return tipo.getSinal() * valor;
+    }
+}
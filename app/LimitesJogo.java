@@ -0,0 +1,264 @@
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Contador circular de uma janela móvel.
+ * Mantém o total corrente, então somar e consultar custam O(1) amortizado:
+ * avançar o tempo só zera os baldes que saíram da janela.
+ */
+final class ContadorJanela {
+    private final long[] baldes;
+    private final long larguraMillis;
+    private long baldeAtual; // Índice absoluto (instante / largura) do balde mais recente.
+    private long total; // Soma de todos os baldes da janela.
+
+    ContadorJanela(JanelaLimite janela) {
+        this.baldes = new long[janela.getBaldes()];
+        this.larguraMillis = janela.getDuracaoMillis() / janela.getBaldes();
+    }
+
+    /**
+     * Soma um valor ao balde do instante informado.
+     */
+    void adicionar(long agora, long valor) {
+        avancar(agora);
+        baldes[(int) (baldeAtual % baldes.length)] += valor;
+        total += valor;
+    }
+
+    /**
+     * Desfaz uma soma feita no instante informado, se o balde dela ainda estiver na janela.
+     */
+    void retirar(long instante, long valor) {
+        long indice = instante / larguraMillis;
+        if (indice > baldeAtual || baldeAtual - indice >= baldes.length) {
+            return; // O balde já saiu da janela (ou nunca foi somado): não há o que desfazer.
+        }
+        baldes[(int) (indice % baldes.length)] -= valor;
+        total -= valor;
+    }
+
+    /**
+     * Retorna o total da janela que termina no instante informado.
+     */
+    long total(long agora) {
+        avancar(agora);
+        return total;
+    }
+
+    private void avancar(long agora) {
+        long indice = agora / larguraMillis;
+        if (indice <= baldeAtual) {
+            return;
+        }
+        if (indice - baldeAtual >= baldes.length) {
+            java.util.Arrays.fill(baldes, 0); // A janela inteira expirou.
+            total = 0;
+        } else {
+            for (long i = baldeAtual + 1; i <= indice; i++) {
+                int posicao = (int) (i % baldes.length);
+                total -= baldes[posicao];
+                baldes[posicao] = 0;
+            }
+        }
+        baldeAtual = indice;
+    }
+}
+
+/**
+ * Limites de jogo responsável de um jogador (perda, aposta e tempo de sessão por
+ * hora, dia e semana). Só existem contadores para os limites configurados, então
+ * a memória por jogador é pequena e fixa, e cada aposta é verificada em O(1).
+ */
+class LimitesJogo {
+    private static final long MILLIS_POR_MINUTO = 60_000L;
+
+    private final Map<TipoLimite, Map<JanelaLimite, Long>> limites = new EnumMap<>(TipoLimite.class);
+    private final Map<TipoLimite, Map<JanelaLimite, ContadorJanela>> contadores = new EnumMap<>(TipoLimite.class);
+    private long ultimoMinutoAtivo = -1; // Último minuto (desde a época) em que houve aposta.
+
+    /**
+     * Define ou altera um limite.
+     *
+     * @param tipo   A grandeza limitada.
+     * @param janela A janela móvel do limite.
+     * @param valor  O valor máximo (centavos para PERDA e APOSTA, minutos para TEMPO_SESSAO).
+     * @throws RuntimeException Se o valor for negativo.
+     */
+    public synchronized void definir(TipoLimite tipo, JanelaLimite janela, long valor) {
+        if (valor < 0) {
+            throw new RuntimeException("O limite não pode ser negativo.");
+        }
+        limites.computeIfAbsent(tipo, t -> new EnumMap<>(JanelaLimite.class)).put(janela, valor);
+        contadores.computeIfAbsent(tipo, t -> new EnumMap<>(JanelaLimite.class))
+                .computeIfAbsent(janela, ContadorJanela::new);
+    }
+
+    /**
+     * Remove um limite e seu contador.
+     *
+     * @param tipo   A grandeza limitada.
+     * @param janela A janela móvel do limite.
+     */
+    public synchronized void remover(TipoLimite tipo, JanelaLimite janela) {
+        Map<JanelaLimite, Long> porJanela = limites.get(tipo);
+        if (porJanela != null) {
+            porJanela.remove(janela);
+            contadores.get(tipo).remove(janela);
+        }
+    }
+
+    /**
+     * Retorna os limites configurados.
+     *
+     * @return Uma cópia dos limites por tipo e janela.
+     */
+    public synchronized Map<TipoLimite, Map<JanelaLimite, Long>> getLimites() {
+        Map<TipoLimite, Map<JanelaLimite, Long>> copia = new EnumMap<>(TipoLimite.class);
+        limites.forEach((tipo, porJanela) -> {
+            if (!porJanela.isEmpty()) {
+                copia.put(tipo, new EnumMap<>(porJanela));
+            }
+        });
+        return copia;
+    }
+
+    /**
+     * Retorna o valor acumulado na janela de um limite.
+     *
+     * @param tipo   A grandeza limitada.
+     * @param janela A janela móvel.
+     * @param agora  O instante atual em milissegundos.
+     * @return O total acumulado, ou 0 se o limite não estiver configurado.
+     */
+    public synchronized long consumido(TipoLimite tipo, JanelaLimite janela, long agora) {
+        ContadorJanela contador = contador(tipo, janela);
+        return contador == null ? 0 : contador.total(agora);
+    }
+
+    /**
+     * Verifica se uma aposta respeita todos os limites e, se sim, a contabiliza.
+     *
+     * @param valorCentavos O valor da aposta em centavos.
+     * @param agora         O instante da aposta em milissegundos.
+     * @throws RuntimeException Se a aposta ultrapassar algum limite; nada é contabilizado nesse caso.
+     */
+    public synchronized void registrarAposta(long valorCentavos, long agora) {
+        long minuto = agora / MILLIS_POR_MINUTO;
+        boolean minutoNovo = minuto != ultimoMinutoAtivo;
+
+        // A perda máxima desta aposta é o próprio valor apostado.
+        verificar(TipoLimite.PERDA, valorCentavos, agora, "Limite de perdas");
+        verificar(TipoLimite.APOSTA, valorCentavos, agora, "Limite de apostas");
+        if (minutoNovo) {
+            verificar(TipoLimite.TEMPO_SESSAO, 1, agora, "Limite de tempo de sessão");
+        }
+
+        somar(TipoLimite.PERDA, valorCentavos, agora);
+        somar(TipoLimite.APOSTA, valorCentavos, agora);
+        if (minutoNovo) {
+            somar(TipoLimite.TEMPO_SESSAO, 1, agora);
+            ultimoMinutoAtivo = minuto;
+        }
+    }
+
+    /**
+     * Desfaz uma aposta contabilizada por {@link #registrarAposta(long, long)} cujo débito
+     * não aconteceu. O minuto de sessão continua contado: o jogador esteve ativo.
+     *
+     * @param valorCentavos O valor da aposta em centavos.
+     * @param agora         O instante informado no registro da aposta.
+     */
+    public synchronized void desfazerAposta(long valorCentavos, long agora) {
+        retirar(TipoLimite.PERDA, valorCentavos, agora);
+        retirar(TipoLimite.APOSTA, valorCentavos, agora);
+    }
+
+    /**
+     * Abate um prêmio da perda acumulada.
+     *
+     * @param valorCentavos O valor do prêmio em centavos.
+     * @param agora         O instante do prêmio em milissegundos.
+     */
+    public synchronized void registrarPremio(long valorCentavos, long agora) {
+        somar(TipoLimite.PERDA, -valorCentavos, agora);
+    }
+
+    private void verificar(TipoLimite tipo, long acrescimo, long agora, String descricao) {
+        Map<JanelaLimite, Long> porJanela = limites.get(tipo);
+        if (porJanela == null) {
+            return;
+        }
+        for (Map.Entry<JanelaLimite, Long> limite : porJanela.entrySet()) {
+            long consumido = contadores.get(tipo).get(limite.getKey()).total(agora);
+            if (consumido + acrescimo > limite.getValue()) {
+                throw new RuntimeException(String.format("%s por %s atingido.", descricao,
+                        limite.getKey().name().toLowerCase()));
+            }
+        }
+    }
+
+    private void somar(TipoLimite tipo, long valor, long agora) {
+        Map<JanelaLimite, ContadorJanela> porJanela = contadores.get(tipo);
+        if (porJanela == null) {
+            return;
+        }
+        for (ContadorJanela contador : porJanela.values()) {
+            contador.adicionar(agora, valor);
+        }
+    }
+
+    private void retirar(TipoLimite tipo, long valor, long agora) {
+        Map<JanelaLimite, ContadorJanela> porJanela = contadores.get(tipo);
+        if (porJanela == null) {
+            return;
+        }
+        for (ContadorJanela contador : porJanela.values()) {
+            contador.retirar(agora, valor);
+        }
+    }
+
+    private ContadorJanela contador(TipoLimite tipo, JanelaLimite janela) {
+        Map<JanelaLimite, ContadorJanela> porJanela = contadores.get(tipo);
+        return porJanela == null ? null : porJanela.get(janela);
+    }
+
+    /**
+     * Converte os limites para o formato da coluna do CSV ("TIPO:JANELA:VALOR;...").
+     *
+     * @return O texto dos limites, vazio se não houver nenhum.
+     */
+    public synchronized String paraCsv() {
+        StringBuilder sb = new StringBuilder();
+        limites.forEach((tipo, porJanela) -> porJanela.forEach((janela, valor) -> {
+            if (sb.length() > 0) {
+                sb.append(';');
+            }
+            sb.append(tipo).append(':').append(janela).append(':').append(valor);
+        }));
+        return sb.toString();
+    }
+
+    /**
+     * Recria os limites a partir da coluna do CSV. Os contadores começam zerados.
+     *
+     * @param texto O texto no formato de {@link #paraCsv()}.
+     * @return Os limites lidos.
+     * @throws IllegalArgumentException Se o texto estiver malformado.
+     */
+    public static LimitesJogo deCsv(String texto) {
+        LimitesJogo limitesJogo = new LimitesJogo();
+        for (String item : texto.split(";")) {
+            if (item.isEmpty()) {
+                continue;
+            }
+            String[] partes = item.split(":");
+            if (partes.length != 3) {
+                throw new IllegalArgumentException("Limite inválido: " + item);
+            }
+            limitesJogo.definir(TipoLimite.valueOf(partes[0]), JanelaLimite.valueOf(partes[1]),
+                    Long.parseLong(partes[2]));
+        }
+        return limitesJogo;
+    }
+}
@@ -0,0 +1,660 @@
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Cache limitado de chaves de idempotência com janela de tempo.
+ * As chaves são distribuídas em segmentos independentes para que threads
+ * trabalhando em contas diferentes raramente disputem o mesmo monitor.
+ * Cada segmento mantém a ordem de inserção, então a expiração e o descarte por
+ * capacidade removem sempre as entradas mais antigas primeiro.
+ */
+class CacheDeIdempotencia {
+    private final Segmento[] segmentos;
+    private final int mascara;
+    private final long janelaMillis; // Tempo durante o qual uma chave continua reconhecida.
+
+    /**
+     * Construtor da classe CacheDeIdempotencia.
+     *
+     * @param capacidadeTotal Número máximo aproximado de chaves mantidas.
+     * @param janelaMillis    Tempo, em milissegundos, que cada chave permanece válida.
+     * @param numeroSegmentos Quantidade de segmentos (arredondada para potência de 2).
+     */
+    public CacheDeIdempotencia(int capacidadeTotal, long janelaMillis, int numeroSegmentos) {
+        int n = Integer.highestOneBit(Math.max(1, numeroSegmentos - 1) << 1);
+        this.segmentos = new Segmento[n];
+        this.mascara = n - 1;
+        this.janelaMillis = janelaMillis;
+        int capacidadePorSegmento = Math.max(1, capacidadeTotal / n);
+        for (int i = 0; i < n; i++) {
+            segmentos[i] = new Segmento(capacidadePorSegmento);
+        }
+    }
+
+    /**
+     * Busca o lançamento já registrado para a chave, se ainda estiver na janela.
+     *
+     * @param chave A chave de idempotência.
+     * @param agora O instante atual em milissegundos.
+     * @return O lançamento registrado, ou null se a chave for desconhecida ou expirada.
+     */
+    public Lancamento buscar(String chave, long agora) {
+        Segmento segmento = segmentoPara(chave);
+        synchronized (segmento) {
+            segmento.expirar(agora - janelaMillis);
+            return segmento.entradas.get(chave);
+        }
+    }
+
+    /**
+     * Registra o lançamento produzido por uma chave.
+     *
+     * @param chave      A chave de idempotência.
+     * @param lancamento O lançamento aplicado.
+     */
+    public void registrar(String chave, Lancamento lancamento) {
+        Segmento segmento = segmentoPara(chave);
+        synchronized (segmento) {
+            segmento.expirar(lancamento.getInstante() - janelaMillis);
+            segmento.entradas.put(chave, lancamento);
+        }
+    }
+
+    /**
+     * Retorna o número de chaves atualmente mantidas (incluindo as ainda não expiradas preguiçosamente).
+     *
+     * @return O total de chaves em todos os segmentos.
+     */
+    public int tamanho() {
+        int total = 0;
+        for (Segmento segmento : segmentos) {
+            synchronized (segmento) {
+                total += segmento.entradas.size();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Retorna os lançamentos ainda reconhecidos das contas informadas, percorrendo o
+     * cache uma única vez. Usado para levar as chaves junto com as contas entre partições.
+     *
+     * @param emails Os emails das contas.
+     * @return Os lançamentos de cada conta que têm chave no cache.
+     */
+    public Map<String, List<Lancamento>> entradasDe(Set<String> emails) {
+        Map<String, List<Lancamento>> resultado = new HashMap<>();
+        for (Segmento segmento : segmentos) {
+            synchronized (segmento) {
+                for (Lancamento lancamento : segmento.entradas.values()) {
+                    if (emails.contains(lancamento.getEmail())) {
+                        resultado.computeIfAbsent(lancamento.getEmail(), k -> new ArrayList<>()).add(lancamento);
+                    }
+                }
+            }
+        }
+        return resultado;
+    }
+
+    private Segmento segmentoPara(String chave) {
+        int h = chave.hashCode();
+        return segmentos[(h ^ (h >>> 16)) & mascara];
+    }
+
+    /**
+     * Segmento do cache: um LinkedHashMap em ordem de inserção limitado por capacidade.
+     */
+    private static final class Segmento {
+        private final LinkedHashMap<String, Lancamento> entradas;
+
+        Segmento(int capacidade) {
+            this.entradas = new LinkedHashMap<>(16, 0.75f, false) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Lancamento> maisAntiga) {
+                    return size() > capacidade; // Descarta a chave mais antiga ao exceder a capacidade.
+                }
+            };
+        }
+
+        /**
+         * Remove do início as entradas registradas antes do limite informado.
+         */
+        void expirar(long limite) {
+            Iterator<Lancamento> it = entradas.values().iterator();
+            while (it.hasNext()) {
+                if (it.next().getInstante() >= limite) {
+                    break; // As demais são mais recentes.
+                }
+                it.remove();
+            }
+        }
+    }
+}
+
+/**
+ * Livro-razão transacional das carteiras dos jogadores.
+ * Toda operação de saldo recebe uma chave de idempotência: uma nova tentativa com
+ * a mesma chave devolve o lançamento original em vez de aplicar o valor de novo.
+ * As operações são serializadas por conta através de travas listradas (o email
+ * escolhe a trava), de modo que contas distintas avançam em paralelo.
+ *
+ * <p>
+ * Os lançamentos ficam indexados por conta. A sequência é atribuída e o lançamento
+ * anexado sob a mesma trava, então a fila de cada conta está sempre em ordem de
+ * sequência. O histórico nunca é resumido: quando uma conta passa do limite de
+ * lançamentos em memória, os mais antigos são anexados, um a um, a um arquivo só de
+ * acréscimos, e a conta guarda apenas a posição de cada bloco arquivado. A memória por
+ * conta fica limitada e a reconstrução do saldo relê os lançamentos arquivados da conta.
+ */
+class LivroRazao {
+    private static final int NUMERO_TRAVAS = 256; // Quantidade de travas listradas (potência de 2).
+    private static final int CAPACIDADE_CACHE = 1 << 20; // Chaves de idempotência mantidas.
+    private static final long JANELA_IDEMPOTENCIA_MILLIS = 24L * 60 * 60 * 1000; // 24 horas.
+    private static final int LIMITE_LANCAMENTOS_POR_CONTA = 256; // Acima disto os mais antigos são arquivados.
+
+    private final ReentrantLock[] travas;
+    private final CacheDeIdempotencia cache;
+    private final int limiteLancamentos;
+    private final AtomicLong proximaSequencia = new AtomicLong(1);
+    private final ConcurrentHashMap<String, Conta> contas = new ConcurrentHashMap<>(); // Por email.
+    private final Object travaArquivo = new Object(); // Serializa os acréscimos ao arquivo.
+    private volatile Path arquivo; // Null até o primeiro arquivamento, se nenhum caminho foi informado.
+
+    /**
+     * Lançamentos de uma conta: os recentes em memória e a posição dos arquivados.
+     * Acessada somente com a trava da conta adquirida.
+     */
+    private static final class Conta {
+        final ArrayDeque<Lancamento> recentes = new ArrayDeque<>();
+        Lancamento abertura; // Primeiro lançamento da conta, arquivado ou não.
+        long[] blocos = new long[8]; // Pares (posição, tamanho em bytes) no arquivo, em ordem.
+        int quantidadeBlocos;
+
+        void adicionarBloco(long posicao, int tamanho) {
+            if (2 * quantidadeBlocos + 2 > blocos.length) {
+                blocos = Arrays.copyOf(blocos, blocos.length * 2);
+            }
+            blocos[2 * quantidadeBlocos] = posicao;
+            blocos[2 * quantidadeBlocos + 1] = tamanho;
+            quantidadeBlocos++;
+        }
+    }
+
+    /**
+     * Construtor da classe LivroRazao com os parâmetros padrão e arquivo temporário.
+     */
+    public LivroRazao() {
+        this(NUMERO_TRAVAS, CAPACIDADE_CACHE, JANELA_IDEMPOTENCIA_MILLIS, LIMITE_LANCAMENTOS_POR_CONTA, null);
+    }
+
+    /**
+     * Construtor da classe LivroRazao.
+     *
+     * @param numeroTravas      Quantidade de travas listradas.
+     * @param capacidadeCache   Número máximo de chaves de idempotência mantidas.
+     * @param janelaMillis      Janela de validade das chaves em milissegundos.
+     * @param limiteLancamentos Lançamentos mantidos em memória por conta antes do arquivamento (mínimo 2).
+     * @param arquivo           Arquivo onde os lançamentos antigos são acrescentados (nunca é truncado),
+     *                          ou null para um arquivo temporário apagado ao fim da execução.
+     */
+    public LivroRazao(int numeroTravas, int capacidadeCache, long janelaMillis, int limiteLancamentos,
+            Path arquivo) {
+        int n = Integer.highestOneBit(Math.max(1, numeroTravas - 1) << 1);
+        this.travas = new ReentrantLock[n];
+        for (int i = 0; i < n; i++) {
+            travas[i] = new ReentrantLock();
+        }
+        this.cache = new CacheDeIdempotencia(capacidadeCache, janelaMillis, n);
+        this.limiteLancamentos = Math.max(2, limiteLancamentos);
+        this.arquivo = arquivo;
+    }
+
+    /**
+     * Registra o saldo atual do jogador como lançamento de abertura.
+     * Deve ser chamado uma vez por conta antes das demais operações; chamadas
+     * repetidas são ignoradas graças à chave de idempotência fixa.
+     *
+     * @param jogador O jogador cuja conta passa a ser controlada pelo livro-razão.
+     * @return O lançamento de abertura, ou o primeiro lançamento de uma conta já aberta.
+     */
+    public Lancamento abrirConta(Jogador jogador) {
+        return aplicar(jogador, TipoLancamento.ABERTURA, jogador.getSaldoCentavos(), "abertura");
+    }
+
+    /**
+     * Deposita um valor na carteira do jogador.
+     *
+     * @param jogador           O jogador afetado.
+     * @param valor             O valor, em centavos.
+     * @param chaveIdempotencia Chave única da operação, escolhida pelo chamador.
+     * @return O lançamento aplicado agora ou o aplicado anteriormente com a mesma chave.
+     * @throws RuntimeException Se o valor for inválido ou a chave já tiver sido usada em outra operação.
+     */
+    public Lancamento depositar(Jogador jogador, long valor, String chaveIdempotencia) {
+        return aplicar(jogador, TipoLancamento.DEPOSITO, valor, chaveIdempotencia);
+    }
+
+    /**
+     * Saca um valor da carteira do jogador (regras de {@link Jogador#sacar(long)}).
+     *
+     * @param jogador           O jogador afetado.
+     * @param valor             O valor, em centavos.
+     * @param chaveIdempotencia Chave única da operação, escolhida pelo chamador.
+     * @return O lançamento aplicado agora ou o aplicado anteriormente com a mesma chave.
+     * @throws RuntimeException Se o valor for inválido, se a chave já tiver sido usada em outra operação
+     *                          ou se o saldo não permitir o saque.
+     */
+    public Lancamento sacar(Jogador jogador, long valor, String chaveIdempotencia) {
+        return aplicar(jogador, TipoLancamento.SAQUE, valor, chaveIdempotencia);
+    }
+
+    /**
+     * Debita uma aposta da carteira do jogador (regras de {@link Jogador#apostar(long)}).
+     *
+     * @param jogador           O jogador afetado.
+     * @param valor             O valor, em centavos.
+     * @param chaveIdempotencia Chave única da operação, escolhida pelo chamador.
+     * @return O lançamento aplicado agora ou o aplicado anteriormente com a mesma chave.
+     * @throws RuntimeException Se o valor for inválido, se a chave já tiver sido usada em outra operação
+     *                          ou se o jogador não puder apostar esse valor.
+     */
+    public Lancamento apostar(Jogador jogador, long valor, String chaveIdempotencia) {
+        return aplicar(jogador, TipoLancamento.APOSTA, valor, chaveIdempotencia);
+    }
+
+    /**
+     * Credita um prêmio na carteira do jogador.
+     *
+     * @param jogador           O jogador afetado.
+     * @param valor             O valor, em centavos.
+     * @param chaveIdempotencia Chave única da operação, escolhida pelo chamador.
+     * @return O lançamento aplicado agora ou o aplicado anteriormente com a mesma chave.
+     * @throws RuntimeException Se o valor for inválido ou a chave já tiver sido usada em outra operação.
+     */
+    public Lancamento recompensar(Jogador jogador, long valor, String chaveIdempotencia) {
+        return aplicar(jogador, TipoLancamento.RECOMPENSA, valor, chaveIdempotencia);
+    }
+
+    /**
+     * Aplica uma operação à carteira do jogador, no máximo uma vez por chave.
+     *
+     * @param jogador           O jogador afetado.
+     * @param tipo              O tipo da operação.
+     * @param valor             O valor da operação, em centavos.
+     * @param chaveIdempotencia Chave única da operação, escolhida pelo chamador.
+     * @return O lançamento aplicado agora ou o aplicado anteriormente com a mesma chave.
+     * @throws RuntimeException Se o valor for inválido, se a chave já tiver sido usada com
+     *                          outro tipo ou valor, ou se a carteira recusar a operação.
+     */
+    public Lancamento aplicar(Jogador jogador, TipoLancamento tipo, long valor, String chaveIdempotencia) {
+        if (chaveIdempotencia == null || chaveIdempotencia.isEmpty()) {
+            throw new RuntimeException("Chave de idempotência obrigatória.");
+        }
+        if (valor < 0 || (valor == 0 && tipo != TipoLancamento.ABERTURA)) {
+            throw new RuntimeException("O valor da operação deve ser positivo.");
+        }
+        // A chave é escopada pela conta: a mesma chave em contas diferentes são operações diferentes.
+        String email = jogador.getEmail();
+        String chave = email + '|' + chaveIdempotencia;
+        ReentrantLock trava = travaPara(email);
+        trava.lock();
+        try {
+            long agora = System.currentTimeMillis();
+            Lancamento anterior = cache.buscar(chave, agora);
+            if (anterior != null) {
+                // A abertura registra o saldo do momento, então só o tipo precisa coincidir.
+                if (anterior.getTipo() != tipo || (tipo != TipoLancamento.ABERTURA && anterior.getValor() != valor)) {
+                    throw new RuntimeException(String.format("Chave de idempotência já usada em outra operação "
+                            + "(%s de %d centavos).", anterior.getTipo(), anterior.getValor()));
+                }
+                return anterior; // Repetição: nada é aplicado novamente.
+            }
+            Conta conta = contas.get(email);
+            if (tipo == TipoLancamento.ABERTURA && conta != null) {
+                return conta.abertura; // Conta já aberta (ou importada), mesmo que a chave tenha expirado.
+            }
+
+            switch (tipo) {
+                case DEPOSITO:
+                    jogador.depositar(valor);
+                    break;
+                case SAQUE:
+                    jogador.sacar(valor);
+                    break;
+                case APOSTA:
+                    jogador.apostar(valor);
+                    break;
+                case RECOMPENSA:
+                    jogador.recompensar(valor);
+                    break;
+                default:
+                    break; // ABERTURA: o saldo já está na carteira; apenas registramos.
+            }
+
+            // Sequência e anexação sob a mesma trava: a fila da conta segue a ordem de sequência.
+            Lancamento lancamento = new Lancamento(proximaSequencia.getAndIncrement(), chaveIdempotencia, email,
+                    tipo, valor, agora);
+            if (conta == null) {
+                conta = contas.computeIfAbsent(email, k -> new Conta());
+            }
+            anexar(email, conta, lancamento);
+            cache.registrar(chave, lancamento);
+            return lancamento;
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    /**
+     * Anexa um lançamento à conta, arquivando os mais antigos se a conta passar do limite.
+     * Deve ser chamado com a trava da conta adquirida.
+     */
+    private void anexar(String email, Conta conta, Lancamento lancamento) {
+        if (conta.abertura == null) {
+            conta.abertura = lancamento;
+        }
+        conta.recentes.addLast(lancamento);
+        if (conta.recentes.size() > limiteLancamentos) {
+            arquivar(email, conta);
+        }
+    }
+
+    /**
+     * Acrescenta a metade mais antiga dos lançamentos em memória da conta ao arquivo, como
+     * um bloco contíguo de linhas {@code sequencia,chave,email,tipo,valor,instante} (valor
+     * em centavos). Se a gravação falhar, os lançamentos continuam em memória e o
+     * arquivamento é tentado de novo no próximo lançamento da conta.
+     * Deve ser chamado com a trava da conta adquirida.
+     */
+    private void arquivar(String email, Conta conta) {
+        int quantidade = conta.recentes.size() - limiteLancamentos / 2;
+        StringBuilder linhas = new StringBuilder(quantidade * 80);
+        Iterator<Lancamento> it = conta.recentes.iterator();
+        for (int i = 0; i < quantidade; i++) {
+            Lancamento l = it.next();
+            linhas.append(l.getSequencia()).append(',').append(l.getChaveIdempotencia()).append(',')
+                    .append(email).append(',').append(l.getTipo().name()).append(',').append(l.getValor())
+                    .append(',').append(l.getInstante()).append('\n');
+        }
+        byte[] bytes = linhas.toString().getBytes(StandardCharsets.UTF_8);
+        long posicao;
+        try {
+            posicao = acrescentar(bytes);
+        } catch (IOException e) {
+            System.err.println("Erro ao arquivar lançamentos de " + email + ": " + e.getMessage());
+            return;
+        }
+        for (int i = 0; i < quantidade; i++) {
+            conta.recentes.pollFirst();
+        }
+        conta.adicionarBloco(posicao, bytes.length);
+    }
+
+    /**
+     * Acrescenta bytes ao fim do arquivo, criando o arquivo temporário na primeira vez.
+     *
+     * @return A posição em que os bytes foram gravados.
+     */
+    private long acrescentar(byte[] bytes) throws IOException {
+        synchronized (travaArquivo) {
+            if (arquivo == null) {
+                Path temporario = Files.createTempFile("livro-razao-", ".csv");
+                temporario.toFile().deleteOnExit();
+                arquivo = temporario;
+            }
+            try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                long posicao = canal.size();
+                ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                while (buffer.hasRemaining()) {
+                    canal.write(buffer, posicao + buffer.position());
+                }
+                return posicao;
+            }
+        }
+    }
+
+    /**
+     * Retorna todo o histórico de uma conta: os lançamentos arquivados, relidos do arquivo,
+     * seguidos dos que estão em memória. Deve ser chamado com a trava da conta adquirida.
+     *
+     * @throws RuntimeException Se o arquivo não puder ser lido ou não corresponder à conta.
+     */
+    private List<Lancamento> historico(String email, Conta conta) {
+        List<Lancamento> todos = new ArrayList<>();
+        if (conta.quantidadeBlocos > 0) {
+            try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+                for (int b = 0; b < conta.quantidadeBlocos; b++) {
+                    long posicao = conta.blocos[2 * b];
+                    ByteBuffer buffer = ByteBuffer.allocate((int) conta.blocos[2 * b + 1]);
+                    while (buffer.hasRemaining()) {
+                        if (canal.read(buffer, posicao + buffer.position()) < 0) {
+                            throw new RuntimeException("Arquivo do livro-razão truncado: " + arquivo);
+                        }
+                    }
+                    String bloco = new String(buffer.array(), StandardCharsets.UTF_8);
+                    for (int inicio = 0; inicio < bloco.length();) {
+                        int fim = bloco.indexOf('\n', inicio);
+                        todos.add(lerLinha(bloco.substring(inicio, fim), email));
+                        inicio = fim + 1;
+                    }
+                }
+            } catch (IOException e) {
+                throw new RuntimeException("Erro ao ler o arquivo do livro-razão: " + e.getMessage(), e);
+            }
+        }
+        todos.addAll(conta.recentes);
+        return todos;
+    }
+
+    /**
+     * Converte uma linha arquivada de volta em lançamento. A chave pode conter vírgulas,
+     * então os campos são localizados pelas pontas e o email da conta separa a chave.
+     */
+    private static Lancamento lerLinha(String linha, String email) {
+        int c1 = linha.indexOf(',');
+        int c5 = linha.lastIndexOf(',');
+        int c4 = linha.lastIndexOf(',', c5 - 1);
+        int c3 = linha.lastIndexOf(',', c4 - 1);
+        int c2 = c3 - email.length() - 1;
+        if (c1 < 0 || c2 <= c1 || linha.charAt(c2) != ',' || !linha.startsWith(email, c2 + 1)) {
+            throw new RuntimeException("Linha do arquivo do livro-razão não pertence a " + email + ": " + linha);
+        }
+        return new Lancamento(Long.parseLong(linha, 0, c1, 10), linha.substring(c1 + 1, c2), email,
+                TipoLancamento.valueOf(linha.substring(c3 + 1, c4)), Long.parseLong(linha, c4 + 1, c5, 10),
+                Long.parseLong(linha, c5 + 1, linha.length(), 10));
+    }
+
+    private static long somar(List<Lancamento> lancamentos) {
+        long saldo = 0;
+        for (Lancamento lancamento : lancamentos) {
+            saldo += lancamento.getValorComSinal();
+        }
+        return saldo;
+    }
+
+    /**
+     * Reconstrói o saldo de uma conta repetindo todos os seus lançamentos, inclusive os arquivados.
+     *
+     * @param email O email do jogador.
+     * @return O saldo segundo o livro-razão, em centavos.
+     * @throws RuntimeException Se os lançamentos arquivados não puderem ser lidos.
+     */
+    public long reconstruirSaldo(String email) {
+        ReentrantLock trava = travaPara(email);
+        trava.lock();
+        try {
+            Conta conta = contas.get(email);
+            return conta == null ? 0 : somar(historico(email, conta));
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    /**
+     * Compara o saldo de cada jogador com o saldo reconstruído pelo livro-razão.
+     * Cada conta é consultada pelo índice e só os blocos arquivados dela são relidos.
+     *
+     * @param jogadores Os jogadores a auditar.
+     * @return Os emails cujo saldo diverge do livro-razão (lista vazia se tudo confere).
+     * @throws RuntimeException Se os lançamentos arquivados não puderem ser lidos.
+     */
+    public List<String> auditar(Iterable<Jogador> jogadores) {
+        List<String> divergentes = new ArrayList<>();
+        for (Jogador jogador : jogadores) {
+            String email = jogador.getEmail();
+            ReentrantLock trava = travaPara(email);
+            trava.lock();
+            try { // Sob a trava da conta, nenhuma operação está aplicada pela metade.
+                Conta conta = contas.get(email);
+                if (conta == null) {
+                    continue; // Conta fora do livro-razão.
+                }
+                if (somar(historico(email, conta)) != jogador.getSaldoCentavos()) { // Centavos: comparação exata.
+                    divergentes.add(email);
+                }
+            } finally {
+                trava.unlock();
+            }
+        }
+        return divergentes;
+    }
+
+    /**
+     * Retorna todos os lançamentos de uma conta, inclusive os arquivados, na ordem em que
+     * foram aplicados.
+     *
+     * @param email O email do jogador.
+     * @return A lista de lançamentos da conta.
+     * @throws RuntimeException Se os lançamentos arquivados não puderem ser lidos.
+     */
+    public List<Lancamento> lancamentosDe(String email) {
+        ReentrantLock trava = travaPara(email);
+        trava.lock();
+        try {
+            Conta conta = contas.get(email);
+            return conta == null ? new ArrayList<>() : historico(email, conta);
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    /**
+     * Retorna os lançamentos com chave de idempotência ainda válida das contas informadas.
+     *
+     * @param emails Os emails das contas.
+     * @return As chaves de cada conta, como os lançamentos que elas produziram.
+     */
+    public Map<String, List<Lancamento>> chavesDe(Set<String> emails) {
+        return cache.entradasDe(emails);
+    }
+
+    /**
+     * Recebe uma conta vinda de outra partição, substituindo o que houver com o mesmo email.
+     * Importar de novo a mesma conta produz o mesmo estado, então a migração pode ser repetida.
+     *
+     * @param email        O email da conta.
+     * @param lancamentos  Todo o histórico da conta na partição de origem, em ordem.
+     * @param chaves       Os lançamentos cujas chaves de idempotência continuam valendo.
+     */
+    public void importarConta(String email, List<Lancamento> lancamentos, List<Lancamento> chaves) {
+        ReentrantLock trava = travaPara(email);
+        trava.lock();
+        try {
+            long maiorSequencia = 0;
+            for (Lancamento lancamento : lancamentos) {
+                maiorSequencia = Math.max(maiorSequencia, lancamento.getSequencia());
+            }
+            // Novos lançamentos desta partição continuam depois dos importados.
+            proximaSequencia.accumulateAndGet(maiorSequencia + 1, Math::max);
+            if (lancamentos.isEmpty()) {
+                contas.remove(email);
+            } else {
+                Conta conta = new Conta();
+                for (Lancamento lancamento : lancamentos) {
+                    anexar(email, conta, lancamento); // Uma conta longa volta a ser arquivada aqui.
+                }
+                contas.put(email, conta);
+            }
+            for (Lancamento lancamento : chaves) {
+                cache.registrar(email + '|' + lancamento.getChaveIdempotencia(), lancamento);
+            }
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    /**
+     * Descarta os lançamentos de uma conta que saiu desta partição. As chaves da conta
+     * ficam no cache até expirarem: uma repetição que chegue aqui encontra a conta
+     * ausente e é recusada antes de consultar o livro-razão.
+     *
+     * @param email O email da conta.
+     */
+    public void removerConta(String email) {
+        ReentrantLock trava = travaPara(email);
+        trava.lock();
+        try {
+            contas.remove(email);
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    /**
+     * Exporta o livro-razão para um arquivo CSV de auditoria, em ordem de sequência.
+     *
+     * @param caminho O caminho para o arquivo CSV.
+     */
+    public void salvarParaCsv(String caminho) {
+        List<Lancamento> todos = new ArrayList<>();
+        for (String email : contas.keySet()) {
+            todos.addAll(lancamentosDe(email));
+        }
+        todos.sort(Comparator.comparingLong(Lancamento::getSequencia));
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(caminho))) {
+            writer.write("sequencia,chave,email,tipo,valor,instante\n");
+            char[] valor = new char[Dinheiro.TAMANHO_MAXIMO]; // Reutilizado em todas as linhas.
+            for (Lancamento l : todos) {
+                writer.write(Long.toString(l.getSequencia()));
+                writer.write(',');
+                writer.write(l.getChaveIdempotencia());
+                writer.write(',');
+                writer.write(l.getEmail());
+                writer.write(',');
+                writer.write(l.getTipo().name());
+                writer.write(',');
+                writer.write(valor, 0, Dinheiro.formatar(l.getValor(), valor, 0));
+                writer.write(',');
+                writer.write(Long.toString(l.getInstante()));
+                writer.write('\n');
+            }
+        } catch (IOException e) {
+            System.err.println("Erro ao salvar livro-razão para CSV: " + e.getMessage());
+        }
+    }
+
+    private ReentrantLock travaPara(String email) {
+        int h = email.hashCode();
+        return travas[(h ^ (h >>> 16)) & (travas.length - 1)];
+    }
+}
@@ -0,0 +1,164 @@
+/**
+ * Motor de giros sem interface, para simulações em massa.
+ * Reproduz o sorteio de {@link CacaNiquel} (símbolos uniformes e curingas
+ * espalhados primeiro por colunas distintas) e as mesmas regras de vitória e
+ * bônus, mas trabalha com índices em um array de bytes reutilizado, sem criar
+ * objetos por giro.
+ */
+final class MotorGiros {
+    public static final int DERROTA = 0;
+    public static final int VITORIA = 1;
+    public static final int BONUS = 2; // Só quando não há vitória, como em CacaNiquel.jogar.
+    // Incrementar sempre que o sorteio ou as regras mudarem: invalida simulações guardadas em cache.
+    public static final int VERSAO = 1;
+
+    static final byte CORINGA = -1; // Valor da posição ocupada por um curinga no tabuleiro.
+
+    private final int tamanho;
+    private final int quantidadeSimbolos;
+    private final int limiteCoringa;
+    private final int[][] linhas; // Posições de cada linha, coluna e diagonal.
+
+    /**
+     * Construtor da classe MotorGiros.
+     *
+     * @param tamanho            Tamanho do tabuleiro.
+     * @param quantidadeSimbolos Quantos dos símbolos padrão são sorteados.
+     * @param limiteCoringa      Quantidade de curingas por tabuleiro.
+     */
+    public MotorGiros(int tamanho, int quantidadeSimbolos, int limiteCoringa) {
+        this.tamanho = tamanho;
+        this.quantidadeSimbolos = quantidadeSimbolos;
+        this.limiteCoringa = Math.min(limiteCoringa, tamanho * tamanho);
+        this.linhas = new int[2 * tamanho + 2][tamanho];
+        for (int i = 0; i < tamanho; i++) {
+            for (int j = 0; j < tamanho; j++) {
+                linhas[i][j] = i * tamanho + j; // Horizontais.
+                linhas[tamanho + i][j] = j * tamanho + i; // Verticais.
+            }
+            linhas[2 * tamanho][i] = i * tamanho + i; // Diagonal principal.
+            linhas[2 * tamanho + 1][i] = i * tamanho + (tamanho - 1 - i); // Diagonal secundária.
+        }
+    }
+
+    public int getTamanho() {
+        return tamanho;
+    }
+
+    public int getQuantidadeSimbolos() {
+        return quantidadeSimbolos;
+    }
+
+    public int getLimiteCoringa() {
+        return limiteCoringa;
+    }
+
+    /**
+     * Cria um tabuleiro vazio do tamanho deste motor, para ser reutilizado entre giros.
+     *
+     * @return O tabuleiro linearizado (linha a linha).
+     */
+    public byte[] novoTabuleiro() {
+        return new byte[tamanho * tamanho];
+    }
+
+    /**
+     * Sorteia um tabuleiro e retorna o resultado.
+     *
+     * @param random    A fonte de aleatoriedade.
+     * @param tabuleiro O tabuleiro reutilizado.
+     * @return {@link #DERROTA}, {@link #VITORIA} ou {@link #BONUS}.
+     */
+    public int girar(FonteSorteio random, byte[] tabuleiro) {
+        sortear(random, tabuleiro);
+        return avaliar(tabuleiro);
+    }
+
+    /**
+     * Preenche o tabuleiro com a mesma distribuição de {@code CacaNiquel.gerarTabuleiro}.
+     * Os primeiros curingas vão para colunas ainda sem curinga (posição uniforme entre
+     * elas); os que sobrarem, para qualquer posição livre.
+     *
+     * @param random    A fonte de aleatoriedade.
+     * @param tabuleiro O tabuleiro a preencher.
+     */
+    public void sortear(FonteSorteio random, byte[] tabuleiro) {
+        for (int i = 0; i < tabuleiro.length; i++) {
+            tabuleiro[i] = (byte) random.nextInt(quantidadeSimbolos);
+        }
+        int colunasLivres = tamanho;
+        int colunasUsadas = 0; // Bits das colunas que já têm curinga.
+        int colocados = 0;
+        for (; colocados < limiteCoringa && colunasLivres > 0; colocados++) {
+            // Escolher uma posição uniforme entre as colunas livres equivale a
+            // escolher a coluna livre e depois a linha, ambas uniformes.
+            int alvo = random.nextInt(colunasLivres);
+            int coluna = -1;
+            while (alvo >= 0) {
+                coluna++;
+                if ((colunasUsadas & (1 << coluna)) == 0) {
+                    alvo--;
+                }
+            }
+            colunasUsadas |= 1 << coluna;
+            colunasLivres--;
+            tabuleiro[random.nextInt(tamanho) * tamanho + coluna] = CORINGA;
+        }
+        for (; colocados < limiteCoringa; colocados++) {
+            int alvo = random.nextInt(tabuleiro.length - colocados);
+            int posicao = -1;
+            while (alvo >= 0) {
+                posicao++;
+                if (tabuleiro[posicao] != CORINGA) {
+                    alvo--;
+                }
+            }
+            tabuleiro[posicao] = CORINGA;
+        }
+    }
+
+    /**
+     * Avalia um tabuleiro com as regras de {@code verificarVitoria} e {@code verificarBonus}.
+     *
+     * @param tabuleiro O tabuleiro linearizado.
+     * @return {@link #DERROTA}, {@link #VITORIA} ou {@link #BONUS}.
+     */
+    public int avaliar(byte[] tabuleiro) {
+        boolean bonus = false;
+        for (int[] linha : linhas) {
+            int primeiro = CORINGA;
+            boolean iguais = true;
+            boolean temCoringa = false;
+            for (int posicao : linha) {
+                int simbolo = tabuleiro[posicao];
+                if (simbolo == CORINGA) {
+                    temCoringa = true;
+                } else if (primeiro == CORINGA) {
+                    primeiro = simbolo;
+                } else if (simbolo != primeiro) {
+                    iguais = false;
+                }
+            }
+            if (iguais && primeiro != CORINGA) {
+                return VITORIA;
+            }
+            if (!bonus && !temCoringa) {
+                bonus = sequenciaEstrita(tabuleiro, linha);
+            }
+        }
+        return bonus ? BONUS : DERROTA;
+    }
+
+    private static boolean sequenciaEstrita(byte[] tabuleiro, int[] linha) {
+        int passo = tabuleiro[linha[1]] - tabuleiro[linha[0]];
+        if (passo != 1 && passo != -1) {
+            return false;
+        }
+        for (int i = 2; i < linha.length; i++) {
+            if (tabuleiro[linha[i]] - tabuleiro[linha[i - 1]] != passo) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
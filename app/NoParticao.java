@@ -0,0 +1,357 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Nó de uma partição de jogadores. Cada nó é um processo JVM que possui seu próprio
+ * {@link SistemaAutenticacao}, seu próprio {@link LivroRazao} e seu próprio arquivo CSV,
+ * e atende o {@link RoteadorParticoes} por um protocolo de texto sobre TCP.
+ *
+ * <p>
+ * Protocolo: uma requisição por linha, campos separados por tabulação. A resposta é
+ * {@code OK<tab>valor} ou {@code ERRO<tab>mensagem}; {@code EXPORTAR} responde
+ * {@code OK<tab>n} seguido de n linhas, uma por conta, com os campos de {@code IMPORTAR}.
+ * <ul>
+ * <li>{@code CADASTRAR email senha AAAA-MM-DD apelido}</li>
+ * <li>{@code LOGIN email senha} → apelido</li>
+ * <li>{@code SALDO email} → saldo</li>
+ * <li>{@code DEPOSITAR email valor chave} / {@code SACAR email valor chave} → novo saldo</li>
+ * <li>{@code EXPORTAR destino no1,no2,...} → congela e exporta as contas que passam a pertencer
+ * a destino nesse anel</li>
+ * <li>{@code IMPORTAR linhaCsv n lançamentos... m chaves...}: a conta, seus n lançamentos e os m
+ * lançamentos com chave de idempotência válida, cada um como sequência, chave, tipo, valor e instante</li>
+ * <li>{@code REMOVER email} / {@code CONTAR}</li>
+ * <li>{@code CANCELAR} / {@code CONCLUIR}: descongela as contas da migração desfeita ou terminada</li>
+ * </ul>
+ *
+ * <p>
+ * Enquanto uma migração está preparada, cadastros e operações de saldo de contas que
+ * pertencem ao destino são recusados, para que nada mude depois da exportação.
+ *
+ * <p>
+ * Uso: {@code java NoParticao <porta> <arquivo.csv>}
+ */
+public class NoParticao {
+    private static final long INTERVALO_SALVAMENTO_MILLIS = 1000; // Salva no máximo uma vez por segundo.
+
+    private final int porta;
+    private final String arquivo;
+    private final SistemaAutenticacao sistema = new SistemaAutenticacao();
+    private final LivroRazao livroRazao = new LivroRazao();
+    private final ReentrantReadWriteLock travaMigracao = new ReentrantReadWriteLock(); // Escritas x exportação.
+    private volatile Migracao migracao; // Migração preparada e ainda não concluída, ou null.
+    private volatile boolean alterado; // Há mudanças ainda não gravadas no CSV.
+
+    /**
+     * Contas que estão saindo deste nó: as que pertencem ao destino no anel novo.
+     */
+    private static final class Migracao {
+        final String destino;
+        final String membros;
+        final AnelConsistente anel;
+
+        Migracao(String destino, String membros) {
+            this.destino = destino;
+            this.membros = membros;
+            this.anel = new AnelConsistente(Arrays.asList(membros.split(",")),
+                    AnelConsistente.PONTOS_VIRTUAIS_PADRAO);
+        }
+
+        boolean inclui(String email) {
+            return anel.noPara(email).equals(destino);
+        }
+    }
+
+    /**
+     * Construtor da classe NoParticao.
+     *
+     * @param porta   A porta TCP atendida.
+     * @param arquivo O arquivo CSV desta partição.
+     */
+    public NoParticao(int porta, String arquivo) {
+        this.porta = porta;
+        this.arquivo = arquivo;
+    }
+
+    /**
+     * Carrega a partição e atende conexões até o processo terminar.
+     *
+     * @throws IOException Se a porta não puder ser aberta.
+     */
+    public void iniciar() throws IOException {
+        sistema.carregarDeCsv(arquivo);
+        ScheduledExecutorService salvador = Executors.newSingleThreadScheduledExecutor();
+        salvador.scheduleWithFixedDelay(this::salvarSeAlterado, INTERVALO_SALVAMENTO_MILLIS,
+                INTERVALO_SALVAMENTO_MILLIS, TimeUnit.MILLISECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::salvarSeAlterado));
+
+        try (ServerSocket servidor = new ServerSocket(porta)) {
+            System.out.printf("Partição atendendo na porta %d (%s)%n", porta, arquivo);
+            while (true) {
+                Socket socket = servidor.accept();
+                Thread.ofVirtual().start(() -> atender(socket));
+            }
+        }
+    }
+
+    /**
+     * Grava o CSV se houve mudanças. Sincronizado: o salvamento periódico e o gancho de
+     * encerramento nunca escrevem o arquivo ao mesmo tempo.
+     */
+    private synchronized void salvarSeAlterado() {
+        if (alterado) {
+            alterado = false;
+            sistema.salvarParaCsv(arquivo);
+        }
+    }
+
+    private void atender(Socket socket) {
+        try (socket;
+                BufferedReader reader = new BufferedReader(
+                        new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                BufferedWriter writer = new BufferedWriter(
+                        new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            socket.setTcpNoDelay(true);
+            String linha;
+            while ((linha = reader.readLine()) != null) {
+                String resposta;
+                try {
+                    resposta = "OK\t" + processar(linha.split("\t", -1));
+                } catch (RuntimeException e) {
+                    resposta = "ERRO\t" + e.getMessage();
+                }
+                writer.write(resposta);
+                writer.write('\n');
+                writer.flush();
+            }
+        } catch (IOException e) {
+            // Conexão encerrada pelo roteador.
+        }
+    }
+
+    /**
+     * Executa uma requisição.
+     *
+     * @param campos O comando seguido de seus argumentos.
+     * @return O valor da resposta.
+     * @throws RuntimeException Se o comando for inválido ou a operação falhar.
+     */
+    String processar(String[] campos) {
+        switch (campos[0]) {
+            case "CADASTRAR":
+                exigirCampos(campos, 5);
+                travaMigracao.readLock().lock();
+                try {
+                    exigirForaDeMigracao(campos[1]);
+                    sistema.cadastrar(campos[1], campos[2], LocalDate.parse(campos[3]), campos[4]);
+                } finally {
+                    travaMigracao.readLock().unlock();
+                }
+                alterado = true;
+                return "";
+            case "LOGIN":
+                exigirCampos(campos, 3);
+                return sistema.login(campos[1], campos[2]).getApelido();
+            case "SALDO":
+                exigirCampos(campos, 2);
+                return formatarSaldo(buscar(campos[1]));
+            case "DEPOSITAR":
+            case "SACAR": {
+                exigirCampos(campos, 4);
+                long valor = Dinheiro.interpretar(campos[2]);
+                String saldo;
+                travaMigracao.readLock().lock();
+                try {
+                    exigirForaDeMigracao(campos[1]);
+                    // Buscada sob a trava: uma migração não pode levar a conta entre a busca e a escrita.
+                    Jogador jogador = buscar(campos[1]);
+                    livroRazao.abrirConta(jogador); // Idempotente: registra o saldo inicial na primeira operação.
+                    if (campos[0].equals("DEPOSITAR")) {
+                        livroRazao.depositar(jogador, valor, campos[3]);
+                    } else {
+                        livroRazao.sacar(jogador, valor, campos[3]);
+                    }
+                    saldo = formatarSaldo(jogador);
+                } finally {
+                    travaMigracao.readLock().unlock();
+                }
+                alterado = true;
+                return saldo;
+            }
+            case "EXPORTAR":
+                exigirCampos(campos, 3);
+                return exportar(campos[1], campos[2]);
+            case "IMPORTAR":
+                if (campos.length < 2) {
+                    throw new RuntimeException("Número de campos inválido para IMPORTAR.");
+                }
+                importar(campos);
+                alterado = true;
+                return "";
+            case "REMOVER":
+                exigirCampos(campos, 2);
+                travaMigracao.writeLock().lock(); // Espera as escritas em andamento na conta.
+                try {
+                    sistema.remover(campos[1]);
+                    livroRazao.removerConta(campos[1]);
+                } finally {
+                    travaMigracao.writeLock().unlock();
+                }
+                alterado = true;
+                return "";
+            case "CANCELAR":
+            case "CONCLUIR":
+                migracao = null; // As contas que ficaram voltam a aceitar escritas.
+                return "";
+            case "CONTAR":
+                return Integer.toString(sistema.getJogadores().size());
+            default:
+                throw new RuntimeException("Comando desconhecido: " + campos[0]);
+        }
+    }
+
+    /**
+     * Prepara a migração: congela as contas que passam a pertencer ao destino e as exporta
+     * com seus lançamentos e chaves de idempotência. Repetir a mesma exportação é permitido.
+     *
+     * @param destino O nó que recebe as contas.
+     * @param membros Os nós do novo anel, separados por vírgula.
+     * @return A quantidade de contas seguida das linhas de IMPORTAR.
+     */
+    private String exportar(String destino, String membros) {
+        travaMigracao.writeLock().lock(); // Espera as escritas em andamento; as próximas veem a migração.
+        try {
+            Migracao atual = migracao;
+            if (atual != null && !(atual.destino.equals(destino) && atual.membros.equals(membros))) {
+                throw new RuntimeException("Outra migração está em andamento para " + atual.destino + ".");
+            }
+            Migracao nova = atual != null ? atual : new Migracao(destino, membros);
+            migracao = nova;
+            List<EstadoJogador> contas = new ArrayList<>();
+            Set<String> emails = new HashSet<>();
+            try (InstantaneoJogadores instantaneo = sistema.abrirInstantaneo()) {
+                for (EstadoJogador jogador : instantaneo) {
+                    if (nova.inclui(jogador.getEmail())) {
+                        contas.add(jogador);
+                        emails.add(jogador.getEmail());
+                    }
+                }
+            }
+            Map<String, List<Lancamento>> chaves = livroRazao.chavesDe(emails);
+            StringBuilder resposta = new StringBuilder().append(contas.size());
+            for (EstadoJogador jogador : contas) {
+                resposta.append('\n').append(sistema.paraLinhaCsv(jogador).trim());
+                anexarLancamentos(resposta, livroRazao.lancamentosDe(jogador.getEmail()));
+                anexarLancamentos(resposta, chaves.getOrDefault(jogador.getEmail(), Collections.emptyList()));
+            }
+            return resposta.toString();
+        } finally {
+            travaMigracao.writeLock().unlock();
+        }
+    }
+
+    private static void anexarLancamentos(StringBuilder destino, List<Lancamento> lancamentos) {
+        destino.append('\t').append(lancamentos.size());
+        for (Lancamento l : lancamentos) {
+            destino.append('\t').append(l.getSequencia())
+                    .append('\t').append(l.getChaveIdempotencia())
+                    .append('\t').append(l.getTipo().name())
+                    .append('\t').append(l.getValor())
+                    .append('\t').append(l.getInstante());
+        }
+    }
+
+    /**
+     * Recebe uma conta exportada por outro nó, substituindo uma cópia anterior.
+     *
+     * @param campos IMPORTAR, a linha do CSV e, opcionalmente, lançamentos e chaves.
+     * @throws RuntimeException Se os campos estiverem malformados.
+     */
+    private void importar(String[] campos) {
+        List<Lancamento> lancamentos = new ArrayList<>();
+        List<Lancamento> chaves = new ArrayList<>();
+        String email = campos[1].substring(0, Math.max(0, campos[1].indexOf(',')));
+        try {
+            int posicao = 2;
+            if (campos.length > 2) {
+                posicao = lerLancamentos(campos, posicao, email, lancamentos);
+                posicao = lerLancamentos(campos, posicao, email, chaves);
+            }
+            if (posicao != campos.length) {
+                throw new RuntimeException("Campos excedentes.");
+            }
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) { // Inclui NumberFormatException.
+            throw new RuntimeException("Lançamentos inválidos para " + email + ".");
+        }
+        // Tudo validado antes de alterar qualquer coisa: uma falha não deixa a conta pela metade.
+        sistema.importarLinhaCsv(campos[1]);
+        livroRazao.importarConta(email, lancamentos, chaves);
+    }
+
+    private static int lerLancamentos(String[] campos, int posicao, String email, List<Lancamento> destino) {
+        int quantidade = Integer.parseInt(campos[posicao++]);
+        for (int i = 0; i < quantidade; i++) {
+            destino.add(new Lancamento(Long.parseLong(campos[posicao]), campos[posicao + 1], email,
+                    TipoLancamento.valueOf(campos[posicao + 2]), Long.parseLong(campos[posicao + 3]),
+                    Long.parseLong(campos[posicao + 4])));
+            posicao += 5;
+        }
+        return posicao;
+    }
+
+    private void exigirForaDeMigracao(String email) {
+        Migracao atual = migracao;
+        if (atual != null && atual.inclui(email)) {
+            throw new RuntimeException("Conta em migração; tente novamente.");
+        }
+    }
+
+    private Jogador buscar(String email) {
+        Jogador jogador = sistema.buscar(email);
+        if (jogador == null) {
+            throw new RuntimeException("Email não cadastrado.");
+        }
+        return jogador;
+    }
+
+    private static String formatarSaldo(Jogador jogador) {
+        return Dinheiro.paraTexto(jogador.getSaldoCentavos());
+    }
+
+    private static void exigirCampos(String[] campos, int quantidade) {
+        if (campos.length != quantidade) {
+            throw new RuntimeException("Número de campos inválido para " + campos[0] + ".");
+        }
+    }
+
+    /**
+     * Método principal de um nó de partição.
+     *
+     * @param args A porta e o arquivo CSV da partição.
+     * @throws IOException Se a porta não puder ser aberta.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Uso: java NoParticao <porta> <arquivo.csv>");
+            return;
+        }
+        new NoParticao(Integer.parseInt(args[0]), args[1]).iniciar();
+    }
+}
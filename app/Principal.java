@@ -7,16 +7,21 @@ import java.io.IOException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.time.LocalDate;
-import java.time.Period;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.Scanner;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Interface para definir o contrato de exibição de mensagens.
@@ -32,6 +37,15 @@ interface ExibidorDeMensagens {
      */
     void exibirMensagem(String mensagem);
 
+    /**
+     * Exibe uma mensagem montada em um buffer reutilizável, sem convertê-la em String.
+     *
+     * @param mensagem O texto da mensagem.
+     */
+    default void exibirMensagem(CharSequence mensagem) {
+        exibirMensagem(mensagem.toString());
+    }
+
     /**
      * Exibe uma mensagem formatada usando o estilo printf no console.
      *
@@ -43,14 +57,16 @@ interface ExibidorDeMensagens {
 
 /**
  * Classe que representa um jogador no sistema do caça-níqueis.
+ * Os dados ficam em um {@link EstadoJogador} imutável trocado por CAS a cada alteração,
+ * o que permite a {@link InstantaneoJogadores} ler versões consistentes sem travar o jogo.
  */
 class Jogador {
-    private String email;
-    private String senhaHash; // Hash da senha para segurança.
-    private double saldo; // Saldo inicial do jogador.
-    private LocalDate dataDeNascimento;
-    private String apelido;
-    private boolean statusMaiorDeIdade; // Define o status do jogador com base na idade.
+    private static final long SALDO_INICIAL_CENTAVOS = 5000; // R$50,00.
+    private static final long SALDO_MINIMO_SAQUE_CENTAVOS = 10000; // R$100,00.
+
+    private final AtomicReference<EstadoJogador> estado = new AtomicReference<>(); // Versão atual dos dados.
+    private volatile VersoesJogadores versoes; // Definido quando o jogador entra em um sistema.
+    private volatile LimitesJogo limites; // Limites de jogo responsável; null enquanto o jogador não definir nenhum.
 
     /**
      * Construtor da classe Jogador.
@@ -61,38 +77,146 @@ class Jogador {
      * @param apelido          O apelido do jogador.
      */
     public Jogador(String email, String senha, LocalDate dataDeNascimento, String apelido) {
-        this.senhaHash = gerarHashSHA256(senha); // Hash da senha para segurança.
-        this.saldo = 50.0; // Saldo inicial do jogador.
-        this.email = email;
-        this.dataDeNascimento = dataDeNascimento;
-        this.apelido = apelido;
-        this.statusMaiorDeIdade = verificarMaiorDeIdade(); // Define o status do jogador com base na idade.
+        // Hash da senha para segurança; saldo inicial do jogador.
+        this.estado.set(new EstadoJogador(0, email, gerarHashSHA256(senha), SALDO_INICIAL_CENTAVOS,
+                dataDeNascimento, apelido, false, "", false));
+        setStatusMaiorDeIdade(verificarMaiorDeIdade()); // Define o status do jogador com base na idade.
+    }
+
+    /**
+     * Construtor usado para restaurar um jogador persistido.
+     * Recebe o hash já calculado e o status de idade decidido pelo chamador, evitando
+     * re-hashear uma senha e consultar o relógio para cada linha carregada.
+     *
+     * @param email              O email do jogador.
+     * @param senhaHash          O hash SHA-256 da senha, como foi salvo.
+     * @param saldoCentavos      O saldo salvo, em centavos.
+     * @param dataDeNascimento   A data de nascimento do jogador.
+     * @param apelido            O apelido do jogador.
+     * @param statusMaiorDeIdade Se o jogador já é maior de idade.
+     */
+    Jogador(String email, String senhaHash, long saldoCentavos, LocalDate dataDeNascimento, String apelido,
+            boolean statusMaiorDeIdade) {
+        this.estado.set(new EstadoJogador(0, email, senhaHash, saldoCentavos, dataDeNascimento, apelido,
+                statusMaiorDeIdade, "", false));
     }
 
     // Getters para os atributos.
     public String getEmail() {
-        return email;
+        return estado.get().email;
     }
 
-    public double getSaldo() {
-        return saldo;
+    public long getSaldoCentavos() {
+        return estado.get().saldoCentavos;
     }
 
     public LocalDate getDataDeNascimento() {
-        return dataDeNascimento;
+        return estado.get().dataDeNascimento;
     }
 
     public String getApelido() {
-        return apelido;
+        return estado.get().apelido;
     }
 
     public boolean getStatusMaiorDeIdade() {
-        return statusMaiorDeIdade;
+        return estado.get().statusMaiorDeIdade;
+    }
+
+    public LimitesJogo getLimites() {
+        return limites;
     }
 
     // Adicionado getter para o hash da senha, necessário para salvar no CSV
     public String getSenhaHash() {
-        return senhaHash;
+        return estado.get().senhaHash;
+    }
+
+    /**
+     * Retorna a versão atual de todos os dados do jogador, lidos de uma só vez.
+     *
+     * @return O estado atual.
+     */
+    public EstadoJogador getEstado() {
+        return estado.get();
+    }
+
+    /**
+     * Retorna o estado que um instantâneo na versão informada enxerga.
+     *
+     * @param versao A versão do instantâneo.
+     * @return O estado mais recente com versão até a informada, ou null se o jogador
+     *         ainda não existia nessa versão.
+     */
+    EstadoJogador estadoEm(long versao) {
+        EstadoJogador e = estado.get();
+        while (e != null && e.versao > versao) {
+            e = e.anterior;
+        }
+        return e;
+    }
+
+    /**
+     * Passa a versionar as alterações do jogador com o controle de um sistema.
+     * Chamado dentro da seção de escrita em que o jogador entra no sistema.
+     *
+     * @param versoes O controle de versões do sistema.
+     * @param versao  A versão da seção de escrita.
+     */
+    void vincular(VersoesJogadores versoes, long versao) {
+        this.versoes = versoes;
+        EstadoJogador atual;
+        do { // Sem versões anteriores: antes disto o jogador não existia para os instantâneos.
+            atual = estado.get();
+        } while (!estado.compareAndSet(atual, atual.comVersao(versao)));
+    }
+
+    /**
+     * Marca a saída do jogador do sistema, dentro de uma seção de escrita.
+     *
+     * @param versao A versão da seção de escrita.
+     */
+    void marcarRemovido(long versao) {
+        aplicar((e, v) -> e.removido(v), versao);
+    }
+
+    /**
+     * Aplica uma alteração ao estado, em uma seção de escrita do sistema do jogador.
+     * Não bloqueia: se outra thread alterar o jogador ao mesmo tempo, a alteração é refeita.
+     *
+     * @param alteracao Cria o novo estado a partir do atual, na versão recebida.
+     */
+    private void alterar(AlteracaoEstado alteracao) {
+        VersoesJogadores v = versoes;
+        if (v == null) { // Jogador avulso: sem instantâneos, tudo fica na versão 0.
+            aplicar(alteracao, 0);
+            return;
+        }
+        long versao = v.entrar();
+        try {
+            aplicar(alteracao, versao);
+        } finally {
+            v.sair(versao);
+        }
+    }
+
+    private void aplicar(AlteracaoEstado alteracao, long versao) {
+        VersoesJogadores v = versoes;
+        while (true) {
+            EstadoJogador atual = estado.get();
+            EstadoJogador novo = alteracao.aplicar(atual, versao);
+            // Guarda o estado substituído só se algum instantâneo aberto puder precisar dele, e
+            // solta os estados que nenhum instantâneo aberto enxerga mais.
+            if (v == null) {
+                novo.anterior = null;
+            } else if (atual.versao < versao && v.necessario(atual.versao)) {
+                novo.anterior = v.aparar(atual);
+            } else {
+                novo.anterior = v.aparar(atual.anterior);
+            }
+            if (estado.compareAndSet(atual, novo)) {
+                return;
+            }
+        }
     }
 
     /**
@@ -125,7 +249,14 @@ class Jogador {
      * @return Verdadeiro se a senha estiver correta, falso caso contrário.
      */
     public boolean autenticar(String senha) {
-        return gerarHashSHA256(senha).equals(this.senhaHash);
+        EventoAutenticacao evento = new EventoAutenticacao();
+        evento.begin();
+        boolean sucesso = gerarHashSHA256(senha).equals(getSenhaHash());
+        if (evento.shouldCommit()) {
+            evento.sucesso = sucesso;
+            evento.commit();
+        }
+        return sucesso;
     }
 
     /**
@@ -134,9 +265,22 @@ class Jogador {
      * @return Verdadeiro se o jogador for maior de idade, falso caso contrário.
      */
     public boolean verificarMaiorDeIdade() {
-        LocalDate hoje = LocalDate.now();
-        Period periodo = Period.between(dataDeNascimento, hoje);
-        return periodo.getYears() >= 18;
+        return !LocalDate.now().isBefore(calcularDataMaioridade(getDataDeNascimento()));
+    }
+
+    /**
+     * Calcula o primeiro dia em que quem nasceu na data informada tem 18 anos completos.
+     * Nascidos em 29 de fevereiro completam 18 anos em 1º de março nos anos não bissextos.
+     *
+     * @param dataDeNascimento A data de nascimento.
+     * @return A data em que a pessoa atinge a maioridade.
+     */
+    public static LocalDate calcularDataMaioridade(LocalDate dataDeNascimento) {
+        LocalDate data = dataDeNascimento.plusYears(18);
+        if (data.getDayOfMonth() != dataDeNascimento.getDayOfMonth()) {
+            data = data.plusDays(1); // plusYears ajustou 29/02 para 28/02.
+        }
+        return data;
     }
 
     /**
@@ -145,82 +289,156 @@ class Jogador {
      * @return Verdadeiro se o jogador puder jogar, falso caso contrário.
      */
     public boolean podeJogar() {
-        return this.statusMaiorDeIdade;
+        return getStatusMaiorDeIdade();
     }
 
     /**
      * Adiciona um valor ao saldo do jogador.
      *
-     * @param valor O valor a ser depositado.
+     * @param valorCentavos O valor a ser depositado, em centavos.
+     * @throws RuntimeException Se o novo saldo não couber em um long.
      */
-    public void depositar(double valor) {
-        this.saldo += valor;
+    public void depositar(long valorCentavos) {
+        alterar((e, versao) -> e.comSaldo(versao, creditar(e.saldoCentavos, valorCentavos)));
+    }
+
+    /**
+     * Soma um crédito ao saldo sem deixar o valor dar a volta para negativo.
+     */
+    private static long creditar(long saldoCentavos, long valorCentavos) {
+        try {
+            return Math.addExact(saldoCentavos, valorCentavos);
+        } catch (ArithmeticException e) {
+            throw new RuntimeException("O saldo ultrapassaria o valor máximo permitido.");
+        }
     }
 
     /**
      * Retira um valor do saldo do jogador.
      * Requer um saldo mínimo de R$100 para sacar.
      *
-     * @param valor O valor a ser sacado.
+     * @param valorCentavos O valor a ser sacado, em centavos.
      * @throws RuntimeException Se o saldo for insuficiente para saque.
      */
-    public void sacar(double valor) {
-        if (this.saldo < 100 || this.saldo < valor) {
-            throw new RuntimeException("Saldo insuficiente para saque. Mínimo de R$100 no saldo.");
-        }
-        this.saldo -= valor;
+    public void sacar(long valorCentavos) {
+        alterar((e, versao) -> {
+            if (e.saldoCentavos < SALDO_MINIMO_SAQUE_CENTAVOS || e.saldoCentavos < valorCentavos) {
+                throw new RuntimeException("Saldo insuficiente para saque. Mínimo de R$100 no saldo.");
+            }
+            return e.comSaldo(versao, e.saldoCentavos - valorCentavos);
+        });
     }
 
     /**
      * Realiza uma aposta, diminuindo o saldo do jogador.
      *
-     * @param valor O valor da aposta.
+     * @param valorCentavos O valor da aposta, em centavos.
      * @throws RuntimeException Se o jogador for inativo ou tiver saldo
      *                          insuficiente.
      */
-    public void apostar(double valor) {
+    public void apostar(long valorCentavos) {
         if (!podeJogar()) {
             throw new RuntimeException("Jogador inativo, não pode jogar.");
         }
-        if (this.saldo < valor) {
+        if (getSaldoCentavos() < valorCentavos) {
             throw new RuntimeException("Saldo insuficiente para aposta.");
         }
-        this.saldo -= valor;
+        long agora = System.currentTimeMillis();
+        LimitesJogo limites = this.limites; // Lido uma vez: o registro e o desfazer usam o mesmo objeto.
+        if (limites != null) {
+            // Lança exceção antes do débito se a aposta ultrapassar algum limite.
+            limites.registrarAposta(valorCentavos, agora);
+        }
+        try {
+            alterar((e, versao) -> {
+                if (e.saldoCentavos < valorCentavos) { // Outra operação consumiu o saldo nesse meio tempo.
+                    throw new RuntimeException("Saldo insuficiente para aposta.");
+                }
+                return e.comSaldo(versao, e.saldoCentavos - valorCentavos);
+            });
+        } catch (RuntimeException e) {
+            if (limites != null) {
+                limites.desfazerAposta(valorCentavos, agora); // A aposta não aconteceu: não conta nos limites.
+            }
+            throw e;
+        }
     }
 
     /**
      * Recompensa o jogador adicionando um valor ao saldo.
      *
-     * @param valor O valor da recompensa.
+     * @param valorCentavos O valor da recompensa, em centavos.
+     * @throws RuntimeException Se o novo saldo não couber em um long.
+     */
+    public void recompensar(long valorCentavos) {
+        alterar((e, versao) -> e.comSaldo(versao, creditar(e.saldoCentavos, valorCentavos)));
+        LimitesJogo limites = this.limites;
+        if (limites != null) {
+            limites.registrarPremio(valorCentavos, System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Define um limite de jogo responsável, criando os limites do jogador se necessário.
+     *
+     * @param tipo   A grandeza limitada.
+     * @param janela A janela móvel do limite.
+     * @param valor  O valor máximo (centavos para perda e aposta, minutos para tempo de sessão).
+     */
+    public synchronized void definirLimite(TipoLimite tipo, JanelaLimite janela, long valor) {
+        if (limites == null) {
+            limites = new LimitesJogo();
+        }
+        limites.definir(tipo, janela, valor);
+        String csv = limites.paraCsv();
+        alterar((e, versao) -> e.comLimitesCsv(versao, csv));
+    }
+
+    /**
+     * Remove um limite de jogo responsável, se definido.
+     *
+     * @param tipo   A grandeza limitada.
+     * @param janela A janela móvel do limite.
      */
-    public void recompensar(double valor) {
-        this.saldo += valor;
+    public synchronized void removerLimite(TipoLimite tipo, JanelaLimite janela) {
+        if (limites == null) {
+            return;
+        }
+        limites.remover(tipo, janela);
+        String csv = limites.paraCsv();
+        alterar((e, versao) -> e.comLimitesCsv(versao, csv));
     }
 
     // Setters necessários para carregar dados do CSV.
     // O setSenhaHash é importante para reconstruir o objeto do CSV sem re-hashear.
     public void setSenhaHash(String senhaHash) {
-        this.senhaHash = senhaHash;
+        alterar((e, versao) -> e.comSenhaHash(versao, senhaHash));
     }
 
-    public void setSaldo(double saldo) {
-        this.saldo = saldo;
+    public void setSaldoCentavos(long saldoCentavos) {
+        alterar((e, versao) -> e.comSaldo(versao, saldoCentavos));
     }
 
     public void setEmail(String email) {
-        this.email = email;
+        alterar((e, versao) -> e.comEmail(versao, email));
     }
 
     public void setDataDeNascimento(LocalDate dataDeNascimento) {
-        this.dataDeNascimento = dataDeNascimento;
+        alterar((e, versao) -> e.comDataDeNascimento(versao, dataDeNascimento));
     }
 
     public void setApelido(String apelido) {
-        this.apelido = apelido;
+        alterar((e, versao) -> e.comApelido(versao, apelido));
     }
 
     public void setStatusMaiorDeIdade(boolean statusMaiorDeIdade) {
-        this.statusMaiorDeIdade = statusMaiorDeIdade;
+        alterar((e, versao) -> e.comStatusMaiorDeIdade(versao, statusMaiorDeIdade));
+    }
+
+    public synchronized void setLimites(LimitesJogo limites) {
+        this.limites = limites;
+        String csv = limites == null ? "" : limites.paraCsv();
+        alterar((e, versao) -> e.comLimitesCsv(versao, csv));
     }
 }
 
@@ -229,14 +447,52 @@ class Jogador {
  */
 class SistemaAutenticacao implements ExibidorDeMensagens { // Implementa a interface
     private Map<String, Jogador> usuarios; // Mapa para armazenar os jogadores, usando o email como chave.
+    private Map<String, AtomicInteger> tentativasFalhas; // Senhas incorretas consecutivas por email.
+    private IndiceMaioridade indiceMaioridade; // Menores de idade ordenados pela data em que farão 18 anos.
+    private final VersoesJogadores versoes = new VersoesJogadores(); // Instantâneos para salvamentos e relatórios.
     private Scanner scanner; // Objeto Scanner para leitura de entrada do usuário.
+    private int tentativasSemEspera; // Número de tentativas antes de aplicar o atraso.
+    private long millisEspera; // Tempo de espera entre tentativas em milissegundos.
 
     /**
      * Construtor da classe SistemaAutenticacao.
      */
     public SistemaAutenticacao() {
-        this.usuarios = new HashMap<>();
+        this(5, 30_000);
+    }
+
+    /**
+     * Construtor da classe SistemaAutenticacao com atraso de tentativas configurável.
+     *
+     * @param tentativasSemEspera Número de senhas incorretas toleradas antes do atraso.
+     * @param millisEspera        Atraso base, em milissegundos, aplicado a cada nova falha.
+     */
+    public SistemaAutenticacao(int tentativasSemEspera, long millisEspera) {
+        this.usuarios = new ConcurrentHashMap<>();
+        this.tentativasFalhas = new ConcurrentHashMap<>();
+        this.indiceMaioridade = new IndiceMaioridade();
         this.scanner = new Scanner(System.in);
+        this.tentativasSemEspera = tentativasSemEspera;
+        this.millisEspera = millisEspera;
+    }
+
+    /**
+     * Retorna todos os jogadores cadastrados.
+     *
+     * @return Uma visão dos jogadores cadastrados.
+     */
+    public Collection<Jogador> getJogadores() {
+        return usuarios.values();
+    }
+
+    /**
+     * Abre uma visão consistente de todos os jogadores neste instante, sem interromper
+     * as rodadas e operações de saldo em andamento.
+     *
+     * @return O instantâneo, que deve ser fechado após o uso (try-with-resources).
+     */
+    public InstantaneoJogadores abrirInstantaneo() {
+        return versoes.abrir();
     }
 
     // Implementação dos métodos da interface ExibidorDeMensagens
@@ -256,9 +512,6 @@ class SistemaAutenticacao implements ExibidorDeMensagens { // Implementa a inter
      * @return O objeto Jogador do jogador logado.
      */
     public Jogador menuLogin() {
-        int tentativasSemEspera = 5; // Número de tentativas antes de aplicar o atraso.
-        long segundosEspera = 30; // Tempo de espera entre tentativas em segundos.
-
         while (true) {
             exibirMensagem("--------------------------------------------------"); // Usa o método da interface
             exibirMensagem("Por favor, digite 1 para fazer login ou 2 para se cadastrar."); // Usa o método da interface
@@ -296,16 +549,12 @@ class SistemaAutenticacao implements ExibidorDeMensagens { // Implementa a inter
                                                                                                                // método
                                                                                                                // da
                                                                                                                // interface
-                            if (tentativas >= tentativasSemEspera) {
-                                // Calcula o tempo de espera progressivo.
-                                long tempoDormir = (tentativas - (tentativasSemEspera - 1)) * segundosEspera;
+                            long tempoDormir = calcularAtraso(tentativas);
+                            if (tempoDormir > 0) {
                                 exibirMensagemFormatada(
                                         "Muitas tentativas incorretas. Por favor, espere %d segundos antes de tentar novamente.%n",
-                                        tempoDormir); // Usa o método da interface
-                                try {
-                                    Thread.sleep(tempoDormir * 1000); // Dorme por tempoDormir segundos.
-                                } catch (InterruptedException e) {
-                                    Thread.currentThread().interrupt();
+                                        tempoDormir / 1000); // Usa o método da interface
+                                if (!aguardarAtraso(tempoDormir)) {
                                     exibirMensagem("O atraso foi interrompido."); // Usa o método da interface
                                 }
                             }
@@ -346,6 +595,69 @@ class SistemaAutenticacao implements ExibidorDeMensagens { // Implementa a inter
         }
     }
 
+    /**
+     * Autentica um jogador sem interação com o console.
+     * Aplica o mesmo atraso progressivo do menu após senhas incorretas consecutivas.
+     *
+     * @param email O email do jogador.
+     * @param senha A senha digitada.
+     * @return O jogador autenticado.
+     * @throws RuntimeException Se o email não estiver cadastrado ou a senha estiver incorreta.
+     */
+    public Jogador login(String email, String senha) {
+        Jogador jogador = usuarios.get(email);
+        if (jogador == null) {
+            throw new RuntimeException("Email não cadastrado.");
+        }
+        if (jogador.autenticar(senha)) {
+            tentativasFalhas.remove(email); // Zera as tentativas após um login correto.
+            return jogador;
+        }
+        int tentativas = tentativasFalhas.computeIfAbsent(email, k -> new AtomicInteger()).incrementAndGet();
+        aguardarAtraso(calcularAtraso(tentativas));
+        throw new RuntimeException("Senha incorreta.");
+    }
+
+    /**
+     * Calcula o atraso progressivo após uma sequência de senhas incorretas.
+     *
+     * @param tentativas Número de tentativas incorretas consecutivas.
+     * @return O atraso em milissegundos (zero enquanto o limite não for atingido).
+     */
+    private long calcularAtraso(int tentativas) {
+        if (tentativas < tentativasSemEspera) {
+            return 0;
+        }
+        return (tentativas - (tentativasSemEspera - 1)) * millisEspera;
+    }
+
+    /**
+     * Dorme pelo tempo de atraso informado.
+     *
+     * @param millis O atraso em milissegundos.
+     * @return Verdadeiro se o atraso foi cumprido, falso se foi interrompido.
+     */
+    private boolean aguardarAtraso(long millis) {
+        if (millis <= 0) {
+            return true;
+        }
+        EventoAtrasoLogin evento = new EventoAtrasoLogin();
+        evento.begin();
+        boolean cumprido = true;
+        try {
+            Thread.sleep(millis); // Dorme pelo tempo de atraso.
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cumprido = false;
+        }
+        if (evento.shouldCommit()) {
+            evento.atrasoSolicitado = millis;
+            evento.interrompido = !cumprido;
+            evento.commit();
+        }
+        return cumprido;
+    }
+
     /**
      * Cadastra um novo jogador no sistema.
      *
@@ -361,31 +673,58 @@ class SistemaAutenticacao implements ExibidorDeMensagens { // Implementa a inter
             throw new RuntimeException("Email já cadastrado.");
         }
         Jogador jogador = new Jogador(email, senha, dataNasc, apelido);
-        usuarios.put(email, jogador);
+        long versao = versoes.entrar();
+        try {
+            jogador.vincular(versoes, versao);
+            if (usuarios.putIfAbsent(email, jogador) != null) { // Outro cadastro simultâneo venceu a corrida.
+                throw new RuntimeException("Email já cadastrado.");
+            }
+            versoes.incluir(jogador);
+        } finally {
+            versoes.sair(versao);
+        }
+        if (!jogador.getStatusMaiorDeIdade()) {
+            indiceMaioridade.registrar(jogador); // Será liberado automaticamente ao fazer 18 anos.
+        }
         return jogador;
     }
 
     /**
      * Salva os dados dos jogadores em um arquivo CSV.
+     * Grava um instantâneo: o arquivo reflete todos os jogadores em um mesmo momento,
+     * enquanto as rodadas continuam alterando os saldos durante a gravação.
      *
      * @param caminho O caminho para o arquivo CSV.
      */
     public void salvarParaCsv(String caminho) {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(caminho))) {
+        EventoPersistenciaCsv evento = new EventoPersistenciaCsv();
+        evento.begin();
+        long linhas = 0;
+        try (InstantaneoJogadores instantaneo = versoes.abrir();
+                BufferedWriter writer = new BufferedWriter(new FileWriter(caminho))) {
             // Escreve o cabeçalho do CSV.
-            writer.write("email,senha_hash,saldo,data_de_nascimento,apelido\n");
-            for (Jogador j : usuarios.values()) {
-                // Escreve os dados de cada jogador.
-                writer.write(String.format("%s,%s,%.2f,%s,%s%n",
-                        j.getEmail(),
-                        j.getSenhaHash(), // Agora usamos o getter para acessar o hash da senha
-                        j.getSaldo(),
-                        j.getDataDeNascimento().toString(),
-                        j.getApelido()));
+            writer.write("email,senha_hash,saldo,data_de_nascimento,apelido,limites\n");
+            char[] saldo = new char[Dinheiro.TAMANHO_MAXIMO]; // Reutilizado em todas as linhas.
+            for (EstadoJogador j : instantaneo) {
+                // Escreve os campos direto no writer, sem montar a linha nem usar String.format.
+                writer.write(j.getEmail());
+                writer.write(',');
+                writer.write(j.getSenhaHash());
+                writer.write(',');
+                writer.write(saldo, 0, Dinheiro.formatar(j.getSaldoCentavos(), saldo, 0));
+                writer.write(',');
+                writer.write(j.getDataDeNascimento().toString());
+                writer.write(',');
+                writer.write(j.getApelido());
+                writer.write(',');
+                writer.write(j.getLimitesCsv());
+                writer.write('\n');
+                linhas++;
             }
         } catch (IOException e) {
             System.err.println("Erro ao salvar jogadores para CSV: " + e.getMessage());
         }
+        registrarPersistencia(evento, "salvar", caminho, linhas);
     }
 
     /**
@@ -399,33 +738,173 @@ class SistemaAutenticacao implements ExibidorDeMensagens { // Implementa a inter
             return; // Não faz nada se o arquivo não existir.
         }
 
+        EventoPersistenciaCsv evento = new EventoPersistenciaCsv();
+        evento.begin();
+        long linhas = 0;
         try (BufferedReader reader = new BufferedReader(new FileReader(caminho))) {
+            // Quem nasceu até esta data já é maior de idade: uma comparação por linha basta.
+            LocalDate limiteMaioridade = indiceMaioridade.getHoje().minusYears(18);
             String linha;
             // Lê o cabeçalho.
             reader.readLine();
             while ((linha = reader.readLine()) != null) {
-                String[] partes = linha.split(",");
-                if (partes.length == 5) {
-                    String email = partes[0];
-                    String senhaHash = partes[1];
-                    double saldo = Double.parseDouble(partes[2]);
-                    LocalDate dataNascimento = LocalDate.parse(partes[3]);
-                    String apelido = partes[4];
-
-                    // Recria o objeto Jogador a partir dos dados do CSV.
-                    // Passamos uma senha dummy para o construtor, pois o hash real será definido a
-                    // seguir.
-                    Jogador jogador = new Jogador(email, "senha_dummy_para_carga", dataNascimento, apelido);
-                    jogador.setSenhaHash(senhaHash); // Define o hash da senha diretamente do CSV
-                    jogador.setSaldo(saldo);
-                    jogador.setStatusMaiorDeIdade(jogador.verificarMaiorDeIdade()); // Recalcula o status.
-
-                    usuarios.put(email, jogador);
-                }
+                lerLinhaCsv(linha, limiteMaioridade);
+                linhas++;
             }
-        } catch (IOException | NumberFormatException | java.time.format.DateTimeParseException e) {
+        } catch (IOException | IllegalArgumentException | java.time.format.DateTimeParseException e) {
             System.err.println("Erro ao carregar jogadores do CSV: " + e.getMessage());
         }
+        registrarPersistencia(evento, "carregar", caminho, linhas);
+    }
+
+    /**
+     * Finaliza o evento JFR de uma gravação ou leitura do CSV, se ele estiver habilitado.
+     *
+     * @param evento   O evento iniciado antes da operação.
+     * @param operacao "salvar" ou "carregar".
+     * @param caminho  O caminho do arquivo.
+     * @param linhas   Quantidade de jogadores gravados ou lidos.
+     */
+    private static void registrarPersistencia(EventoPersistenciaCsv evento, String operacao, String caminho,
+            long linhas) {
+        evento.end(); // O tamanho do arquivo não entra na duração.
+        if (evento.shouldCommit()) {
+            evento.operacao = operacao;
+            evento.caminho = caminho;
+            evento.linhas = linhas;
+            evento.bytes = new File(caminho).length();
+            evento.commit();
+        }
+    }
+
+    /**
+     * Formata um jogador como uma linha do CSV (incluindo a quebra de linha).
+     *
+     * @param j O jogador.
+     * @return A linha do CSV.
+     */
+    public String paraLinhaCsv(Jogador j) {
+        return paraLinhaCsv(j.getEstado()); // Um único estado: a linha nunca mistura duas versões.
+    }
+
+    /**
+     * Formata o estado de um jogador como uma linha do CSV (incluindo a quebra de linha).
+     *
+     * @param j O estado do jogador, atual ou de um instantâneo.
+     * @return A linha do CSV.
+     */
+    public String paraLinhaCsv(EstadoJogador j) {
+        StringBuilder linha = new StringBuilder(96);
+        linha.append(j.getEmail()).append(',')
+                .append(j.getSenhaHash()).append(','); // Agora usamos o getter para acessar o hash da senha
+        Dinheiro.formatar(j.getSaldoCentavos(), linha).append(',')
+                .append(j.getDataDeNascimento()).append(',')
+                .append(j.getApelido()).append(',')
+                .append(j.getLimitesCsv());
+        return linha.append('\n').toString();
+    }
+
+    /**
+     * Importa um jogador a partir de uma linha do CSV, substituindo um existente com o mesmo email.
+     * Usado para mover contas entre partições.
+     *
+     * @param linha A linha no formato de {@link #paraLinhaCsv(Jogador)}.
+     * @return O jogador importado.
+     * @throws RuntimeException Se a linha estiver malformada.
+     */
+    public Jogador importarLinhaCsv(String linha) {
+        Jogador jogador = lerLinhaCsv(linha.trim(), indiceMaioridade.getHoje().minusYears(18));
+        if (jogador == null) {
+            throw new RuntimeException("Linha de jogador inválida.");
+        }
+        return jogador;
+    }
+
+    /**
+     * Recria um jogador a partir de uma linha do CSV e o adiciona ao mapa.
+     *
+     * @param linha            A linha do CSV.
+     * @param limiteMaioridade Quem nasceu até esta data já é maior de idade.
+     * @return O jogador lido, ou null se a linha não tiver o número de colunas esperado.
+     */
+    private Jogador lerLinhaCsv(String linha, LocalDate limiteMaioridade) {
+        String[] partes = linha.split(",");
+        if (partes.length != 5 && partes.length != 6) { // A coluna de limites é opcional.
+            return null;
+        }
+        String email = partes[0];
+        String senhaHash = partes[1];
+        long saldo = Dinheiro.interpretar(partes[2]);
+        LocalDate dataNascimento = LocalDate.parse(partes[3]);
+        String apelido = partes[4];
+
+        // Recria o objeto Jogador a partir dos dados do CSV, com o hash salvo.
+        boolean maiorDeIdade = !dataNascimento.isAfter(limiteMaioridade);
+        Jogador jogador = new Jogador(email, senhaHash, saldo, dataNascimento, apelido, maiorDeIdade);
+
+        if (partes.length == 6) {
+            jogador.setLimites(LimitesJogo.deCsv(partes[5]));
+        }
+
+        Jogador anterior;
+        long versao = versoes.entrar();
+        try {
+            jogador.vincular(versoes, versao);
+            anterior = usuarios.put(email, jogador);
+            versoes.incluir(jogador);
+            if (anterior != null) {
+                anterior.marcarRemovido(versao); // Na mesma versão: nenhum instantâneo vê os dois.
+            }
+        } finally {
+            versoes.sair(versao);
+        }
+        if (anterior != null) {
+            versoes.contarRemovido(); // Fora da seção de escrita: abrir() espera as seções com a trava.
+            if (!anterior.getStatusMaiorDeIdade()) {
+                indiceMaioridade.descartar(anterior); // A instância substituída não deve ser liberada.
+            }
+        }
+        if (!maiorDeIdade) {
+            indiceMaioridade.registrar(jogador); // Só menores entram no índice.
+        }
+        return jogador;
+    }
+
+    /**
+     * Busca um jogador pelo email.
+     *
+     * @param email O email do jogador.
+     * @return O jogador, ou null se não estiver cadastrado.
+     */
+    public Jogador buscar(String email) {
+        return usuarios.get(email);
+    }
+
+    /**
+     * Remove um jogador do sistema (usado quando a conta passa para outra partição).
+     *
+     * @param email O email do jogador.
+     * @return O jogador removido, ou null se não existia.
+     */
+    public Jogador remover(String email) {
+        tentativasFalhas.remove(email);
+        Jogador removido;
+        long versao = versoes.entrar();
+        try {
+            removido = usuarios.remove(email);
+            if (removido != null) {
+                removido.marcarRemovido(versao);
+            }
+        } finally {
+            versoes.sair(versao);
+        }
+        if (removido != null) {
+            versoes.contarRemovido();
+            if (!removido.getStatusMaiorDeIdade()) {
+                indiceMaioridade.descartar(removido);
+            }
+        }
+        return removido;
     }
 }
 
@@ -444,6 +923,15 @@ abstract class CacaNiquel implements ExibidorDeMensagens { // Implementa a inter
     protected int apostaMin; // Aposta mínima permitida.
     protected int apostaMax; // Aposta máxima permitida.
     protected int multiplicadorPremio; // Multiplicador de prêmio para vitória.
+    protected List<String> simbolos; // Símbolos sorteados neste slot (os primeiros de SIMBOLOS).
+    protected LivroRazao livroRazao; // Livro-razão opcional por onde passam apostas e prêmios.
+    protected ExibidorDeMensagens saida; // Destino opcional das mensagens; null usa o console.
+    protected HistoricoRodadas historico; // Histórico colunar opcional onde cada rodada é registrada.
+    protected SorteioVerificavel sorteioVerificavel; // Quando definido, os tabuleiros vêm das sementes.
+    private MotorGiros motor; // Criado na primeira rodada verificável.
+    protected ReservatorioTabuleiros reservatorio; // Tabuleiros pré-gerados opcionais.
+    // Buffer das mensagens de prêmio, um por thread (o mesmo slot pode atender vários jogadores).
+    private static final ThreadLocal<StringBuilder> MENSAGEM = ThreadLocal.withInitial(() -> new StringBuilder(64));
 
     /**
      * Construtor da classe CacaNiquel.
@@ -455,6 +943,26 @@ abstract class CacaNiquel implements ExibidorDeMensagens { // Implementa a inter
      * @param multiplicadorPremio Multiplicador de prêmio.
      */
     public CacaNiquel(int tamanho, int limiteCoringa, int apostaMin, int apostaMax, int multiplicadorPremio) {
+        this(tamanho, limiteCoringa, apostaMin, apostaMax, multiplicadorPremio, SIMBOLOS.size());
+    }
+
+    /**
+     * Construtor da classe CacaNiquel com um conjunto reduzido de símbolos.
+     *
+     * @param tamanho             Tamanho do tabuleiro.
+     * @param limiteCoringa       Limite de curingas.
+     * @param apostaMin           Aposta mínima.
+     * @param apostaMax           Aposta máxima.
+     * @param multiplicadorPremio Multiplicador de prêmio.
+     * @param quantidadeSimbolos  Quantos dos símbolos padrão são sorteados (2 a 13).
+     * @throws RuntimeException Se a quantidade de símbolos for inválida.
+     */
+    public CacaNiquel(int tamanho, int limiteCoringa, int apostaMin, int apostaMax, int multiplicadorPremio,
+            int quantidadeSimbolos) {
+        if (quantidadeSimbolos < 2 || quantidadeSimbolos > SIMBOLOS.size()) {
+            throw new RuntimeException("Quantidade de símbolos inválida: " + quantidadeSimbolos);
+        }
+        this.simbolos = SIMBOLOS.subList(0, quantidadeSimbolos);
         this.tamanho = tamanho;
         this.limiteCoringa = limiteCoringa;
         this.apostaMin = apostaMin;
@@ -464,27 +972,98 @@ abstract class CacaNiquel implements ExibidorDeMensagens { // Implementa a inter
         this.scanner = new Scanner(System.in);
     }
 
+    /**
+     * Define o livro-razão usado para registrar apostas e prêmios das rodadas.
+     *
+     * @param livroRazao O livro-razão, ou null para alterar o saldo diretamente.
+     */
+    public void setLivroRazao(LivroRazao livroRazao) {
+        this.livroRazao = livroRazao;
+    }
+
+    /**
+     * Define o histórico onde o resultado de cada rodada é registrado.
+     *
+     * @param historico O histórico, ou null para não registrar as rodadas.
+     */
+    public void setHistorico(HistoricoRodadas historico) {
+        this.historico = historico;
+    }
+
+    /**
+     * Ativa o modo comprovadamente justo: cada tabuleiro passa a ser derivado das
+     * sementes do servidor e do cliente e do nonce, em vez do gerador aleatório.
+     *
+     * @param sorteioVerificavel As sementes do jogador, ou null para o sorteio comum.
+     */
+    public void setSorteioVerificavel(SorteioVerificavel sorteioVerificavel) {
+        this.sorteioVerificavel = sorteioVerificavel;
+    }
+
+    /**
+     * Passa a retirar os tabuleiros de um reservatório pré-gerado (exceto no modo
+     * comprovadamente justo, em que o tabuleiro depende das sementes do jogador).
+     *
+     * @param reservatorio O reservatório, ou null para gerar cada tabuleiro na hora.
+     * @throws RuntimeException Se o reservatório for de outra configuração de slot.
+     */
+    public void setReservatorio(ReservatorioTabuleiros reservatorio) {
+        if (reservatorio != null && !reservatorio.compativelCom(this)) {
+            throw new RuntimeException("Reservatório de tabuleiros de outra configuração de slot.");
+        }
+        this.reservatorio = reservatorio;
+    }
+
+    /**
+     * Redireciona as mensagens da rodada para outro exibidor (ex: um descarte em testes de carga).
+     *
+     * @param saida O exibidor a usar, ou null para voltar ao console.
+     */
+    public void setSaida(ExibidorDeMensagens saida) {
+        this.saida = saida;
+    }
+
     // Implementação dos métodos da interface ExibidorDeMensagens
     @Override
     public void exibirMensagem(String mensagem) {
+        if (saida != null) {
+            saida.exibirMensagem(mensagem);
+            return;
+        }
         System.out.println(mensagem);
     }
 
+    @Override
+    public void exibirMensagem(CharSequence mensagem) {
+        if (saida != null) {
+            saida.exibirMensagem(mensagem);
+            return;
+        }
+        System.out.append(mensagem).println();
+    }
+
     @Override
     public void exibirMensagemFormatada(String formato, Object... args) {
+        if (saida != null) {
+            saida.exibirMensagemFormatada(formato, args);
+            return;
+        }
         System.out.printf(formato, args);
     }
 
     /**
      * Executa uma rodada do jogo de caça-níqueis.
      *
-     * @param jogador     O jogador que está apostando.
-     * @param valorAposta O valor da aposta.
+     * @param jogador             O jogador que está apostando.
+     * @param valorApostaCentavos O valor da aposta, em centavos.
      * @return Um array contendo o tabuleiro, status de vitória e status de bônus.
      * @throws RuntimeException Se a aposta estiver fora dos limites.
      */
-    public Object[] jogar(Jogador jogador, double valorAposta) {
-        if (valorAposta < apostaMin || valorAposta > apostaMax) {
+    public Object[] jogar(Jogador jogador, long valorApostaCentavos) {
+        EventoRodada evento = new EventoRodada();
+        evento.begin();
+        if (valorApostaCentavos < apostaMin * Dinheiro.CENTAVOS_POR_REAL
+                || valorApostaCentavos > apostaMax * Dinheiro.CENTAVOS_POR_REAL) {
             exibirMensagemFormatada("Valor da aposta fora dos limites (%d-%d).%n", apostaMin, apostaMax); // Usa o
                                                                                                           // método da
                                                                                                           // interface
@@ -492,29 +1071,69 @@ abstract class CacaNiquel implements ExibidorDeMensagens { // Implementa a inter
                     String.format("Valor da aposta fora dos limites (%d-%d).", apostaMin, apostaMax));
         }
 
-        jogador.apostar(valorAposta); // Decrementa o saldo do jogador.
-        String[][] tabuleiro = gerarTabuleiro(); // Gera o tabuleiro.
-
-        boolean vitoria = verificarVitoria(tabuleiro); // Verifica se houve vitória.
-        boolean bonus = verificarBonus(tabuleiro); // Verifica se houve bônus.
+        String chaveRodada = UUID.randomUUID().toString(); // Identifica a rodada no livro-razão.
+        if (livroRazao != null) {
+            livroRazao.apostar(jogador, valorApostaCentavos, chaveRodada + ":aposta");
+        } else {
+            jogador.apostar(valorApostaCentavos); // Decrementa o saldo do jogador.
+        }
+        String[][] tabuleiro;
+        boolean vitoria;
+        boolean bonus;
+        TabuleiroPronto pronto = sorteioVerificavel == null && reservatorio != null ? reservatorio.retirar() : null;
+        if (pronto != null) {
+            tabuleiro = pronto.getTabuleiro(); // Já sorteado e avaliado em segundo plano.
+            vitoria = pronto.isVitoria();
+            bonus = pronto.isBonus();
+        } else {
+            // Gera o tabuleiro.
+            tabuleiro = sorteioVerificavel != null ? gerarTabuleiroVerificavel() : gerarTabuleiro();
+            vitoria = verificarVitoria(tabuleiro); // Verifica se houve vitória.
+            bonus = verificarBonus(tabuleiro); // Verifica se houve bônus.
+        }
 
-        if (vitoria) {
-            jogador.recompensar(valorAposta * multiplicadorPremio); // Recompensa por vitória.
-            exibirMensagemFormatada("Parabéns! Você ganhou R$%.2f!%n", (valorAposta * multiplicadorPremio)); // Usa o
-                                                                                                             // método
-                                                                                                             // da
-                                                                                                             // interface
-        } else if (bonus) {
-            jogador.recompensar(valorAposta); // Recompensa por bônus (metade da vitória).
-            exibirMensagemFormatada("Você ganhou um bônus! Você ganhou R$%.2f!%n", (valorAposta)); // Usa o método da
-                                                                                                   // interface
+        long premio = vitoria ? valorApostaCentavos * multiplicadorPremio : bonus ? valorApostaCentavos : 0;
+        if (premio > 0) {
+            creditarPremio(jogador, premio, chaveRodada); // Recompensa por vitória ou bônus.
+            StringBuilder mensagem = MENSAGEM.get();
+            mensagem.setLength(0);
+            mensagem.append(vitoria ? "Parabéns! Você ganhou R$" : "Você ganhou um bônus! Você ganhou R$");
+            Dinheiro.formatar(premio, mensagem).append('!');
+            exibirMensagem(mensagem); // Usa o método da interface
         } else {
             exibirMensagem("Nenhuma vitória desta vez."); // Usa o método da interface
         }
 
+        if (historico != null) {
+            historico.registrar(tamanho, valorApostaCentavos, vitoria, bonus, premio, System.currentTimeMillis());
+        }
+
+        if (evento.shouldCommit()) {
+            evento.slot = getClass().getSimpleName();
+            evento.apostaCentavos = valorApostaCentavos;
+            evento.premioCentavos = premio;
+            evento.resultado = vitoria ? "vitoria" : bonus ? "bonus" : "derrota";
+            evento.origem = pronto != null ? "reservatorio" : sorteioVerificavel != null ? "verificavel" : "na-hora";
+            evento.commit();
+        }
         return new Object[] { tabuleiro, vitoria, bonus };
     }
 
+    /**
+     * Credita o prêmio de uma rodada, passando pelo livro-razão quando houver um.
+     *
+     * @param jogador     O jogador premiado.
+     * @param valor       O valor do prêmio, em centavos.
+     * @param chaveRodada A chave que identifica a rodada.
+     */
+    private void creditarPremio(Jogador jogador, long valor, String chaveRodada) {
+        if (livroRazao != null) {
+            livroRazao.recompensar(jogador, valor, chaveRodada + ":premio");
+        } else {
+            jogador.recompensar(valor);
+        }
+    }
+
     /**
      * Solicita e valida o valor da aposta do jogador.
      *
@@ -545,11 +1164,11 @@ abstract class CacaNiquel implements ExibidorDeMensagens { // Implementa a inter
      *
      * @return O tabuleiro gerado.
      */
-    private String[][] gerarTabuleiro() {
+    protected String[][] gerarTabuleiro() {
         String[][] tabuleiro = new String[tamanho][tamanho];
         for (int i = 0; i < tamanho; i++) {
             for (int j = 0; j < tamanho; j++) {
-                tabuleiro[i][j] = SIMBOLOS.get(random.nextInt(SIMBOLOS.size())); // Inicializa com símbolos aleatórios.
+                tabuleiro[i][j] = simbolos.get(random.nextInt(simbolos.size())); // Inicializa com símbolos aleatórios.
             }
         }
 
@@ -621,6 +1240,28 @@ abstract class CacaNiquel implements ExibidorDeMensagens { // Implementa a inter
         return tabuleiro;
     }
 
+    /**
+     * Gera o tabuleiro a partir das sementes da rodada, com a mesma distribuição de
+     * {@link #gerarTabuleiro()}.
+     *
+     * @return O tabuleiro gerado.
+     */
+    private String[][] gerarTabuleiroVerificavel() {
+        if (motor == null) {
+            motor = new MotorGiros(tamanho, simbolos.size(), limiteCoringa);
+        }
+        byte[] sorteado = motor.novoTabuleiro();
+        sorteioVerificavel.sortear(motor, sorteado);
+        String[][] tabuleiro = new String[tamanho][tamanho];
+        for (int i = 0; i < tamanho; i++) {
+            for (int j = 0; j < tamanho; j++) {
+                byte simbolo = sorteado[i * tamanho + j];
+                tabuleiro[i][j] = simbolo == MotorGiros.CORINGA ? CORINGA : simbolos.get(simbolo);
+            }
+        }
+        return tabuleiro;
+    }
+
     /**
      * Método auxiliar para verificar se uma lista de arrays de int contém um array
      * específico.
@@ -823,13 +1464,19 @@ class SlotDificil extends CacaNiquel {
 public class Principal implements ExibidorDeMensagens { // Implementa a interface
     private static final String ARQUIVO_DADOS_JOGADORES = "jogadores.csv"; // Nome do arquivo para salvar/carregar dados
                                                                            // dos jogadores.
+    private static final String DIRETORIO_HISTORICO = "historico"; // Diretório do histórico colunar de rodadas.
+    private static final String ARQUIVO_RODADAS_VERIFICAVEIS = "rodadas-verificaveis.csv"; // Sementes e tabuleiros.
     private Scanner scanner; // Objeto Scanner para leitura de entrada do usuário.
+    private LivroRazao livroRazao; // Registro idempotente de todas as operações de saldo.
+    private HistoricoRodadas historico; // Histórico das rodadas para análises.
 
     /**
      * Construtor da classe Principal.
      */
     public Principal() {
         this.scanner = new Scanner(System.in);
+        this.livroRazao = new LivroRazao();
+        this.historico = new HistoricoRodadas(DIRETORIO_HISTORICO);
     }
 
     // Implementação dos métodos da interface ExibidorDeMensagens
@@ -851,6 +1498,21 @@ public class Principal implements ExibidorDeMensagens { // Implementa a interfac
         sistema.carregarDeCsv(ARQUIVO_DADOS_JOGADORES); // Carrega os dados dos jogadores ao iniciar.
 
         Jogador jogadorLogado = sistema.menuLogin(); // Tenta fazer login ou cadastra um novo jogador.
+        livroRazao.abrirConta(jogadorLogado); // Registra o saldo inicial para auditoria.
+        ServicoJogoAssincrono servico = new ServicoJogoAssincrono(sistema, livroRazao); // Serializa as operações.
+        String email = jogadorLogado.getEmail();
+        BufferedWriter registroRodadas = null;
+        try {
+            registroRodadas = new BufferedWriter(new FileWriter(ARQUIVO_RODADAS_VERIFICAVEIS, true));
+        } catch (IOException e) {
+            System.err.println("Erro ao abrir registro de rodadas verificáveis: " + e.getMessage());
+        }
+        SorteioVerificavel sorteio = new SorteioVerificavel(SorteioVerificavel.novaSementeCliente(), registroRodadas);
+        exibirMensagemFormatada("Compromisso da semente do servidor (SHA-256): %s%n", sorteio.getCompromisso()); // Usa
+                                                                                                                   // o
+                                                                                                                   // método
+                                                                                                                   // da
+                                                                                                                   // interface
 
         while (true) {
             exibirMensagem("\n--- Menu do Jogo ---"); // Usa o método da interface
@@ -859,6 +1521,8 @@ public class Principal implements ExibidorDeMensagens { // Implementa a interfac
             exibirMensagem("3. Depositar Dinheiro"); // Usa o método da interface
             exibirMensagem("4. Sacar Dinheiro"); // Usa o método da interface
             exibirMensagem("5. Sair do Jogo"); // Usa o método da interface
+            exibirMensagem("6. Limites de Jogo Responsável"); // Usa o método da interface
+            exibirMensagem("7. Jogo Comprovadamente Justo"); // Usa o método da interface
             exibirMensagem("--------------------"); // Usa o método da interface
             exibirMensagem("Digite sua escolha:"); // Usa o método da interface
 
@@ -868,9 +1532,13 @@ public class Principal implements ExibidorDeMensagens { // Implementa a interfac
             switch (escolhaMenu) {
                 case 1:
                     CacaNiquel jogoSlot = selecionarNivelDificuldade(); // Permite ao jogador escolher a dificuldade.
+                    jogoSlot.setLivroRazao(livroRazao);
+                    jogoSlot.setHistorico(historico);
+                    jogoSlot.setSorteioVerificavel(sorteio);
                     int valorAposta = jogoSlot.solicitarValorAposta(); // Solicita a aposta ao jogador.
                     try {
-                        Object[] resultado = jogoSlot.jogar(jogadorLogado, valorAposta); // Joga a rodada.
+                        Object[] resultado = aguardar(
+                                servico.jogar(email, jogoSlot, Dinheiro.deReais(valorAposta))); // Joga a rodada.
                         String[][] tabuleiro = (String[][]) resultado[0];
                         boolean vitoria = (boolean) resultado[1];
                         boolean bonus = (boolean) resultado[2];
@@ -885,46 +1553,64 @@ public class Principal implements ExibidorDeMensagens { // Implementa a interfac
                         }
                         exibirMensagemFormatada("Vitória: %s%n", vitoria ? "Sim" : "Não"); // Usa o método da interface
                         exibirMensagemFormatada("Bônus: %s%n", bonus ? "Sim" : "Não"); // Usa o método da interface
-                        exibirMensagemFormatada("Saldo Atual: R$%.2f%n", jogadorLogado.getSaldo()); // Usa o método da
-                                                                                                    // interface
+                        exibirMensagemFormatada("Semente do cliente: %s, nonce: %d%n", sorteio.getSementeCliente(),
+                                sorteio.getNonce() - 1); // Usa o método da interface
+                        exibirMensagem(Dinheiro.formatar(jogadorLogado.getSaldoCentavos(),
+                                new StringBuilder("Saldo Atual: R$"))); // Usa o método da interface
                         exibirMensagem("-------------------------"); // Usa o método da interface
                     } catch (RuntimeException e) {
                         exibirMensagem("Erro ao jogar: " + e.getMessage()); // Usa o método da interface
                     }
                     break;
                 case 2:
-                    exibirMensagemFormatada("\nSeu saldo atual é: R$%.2f%n", jogadorLogado.getSaldo()); // Usa o método
-                                                                                                        // da interface
+                    exibirMensagem(Dinheiro.formatar(aguardar(servico.consultarSaldo(email)),
+                            new StringBuilder("\nSeu saldo atual é: R$"))); // Usa o método da interface
                     break;
                 case 3:
                     exibirMensagem("Digite o valor a depositar:"); // Usa o método da interface
-                    double valorDeposito = scanner.nextDouble();
-                    scanner.nextLine(); // Consome a nova linha.
+                    long valorDeposito = lerValor();
                     if (valorDeposito > 0) {
-                        jogadorLogado.depositar(valorDeposito);
-                        exibirMensagemFormatada("Depósito realizado com sucesso! Novo saldo: R$%.2f%n",
-                                jogadorLogado.getSaldo()); // Usa o método da interface
+                        long novoSaldo = aguardar(
+                                servico.depositar(email, valorDeposito, UUID.randomUUID().toString()));
+                        exibirMensagem(Dinheiro.formatar(novoSaldo,
+                                new StringBuilder("Depósito realizado com sucesso! Novo saldo: R$"))); // Usa o método
+                                                                                                      // da interface
                     } else {
                         exibirMensagem("O valor do depósito deve ser positivo."); // Usa o método da interface
                     }
                     break;
                 case 4:
                     exibirMensagem("Digite o valor a sacar (mínimo de R$100 no saldo):"); // Usa o método da interface
-                    double valorSaque = scanner.nextDouble();
-                    scanner.nextLine(); // Consome a nova linha.
+                    long valorSaque = lerValor();
+                    if (valorSaque <= 0) {
+                        exibirMensagem("O valor do saque deve ser positivo."); // Usa o método da interface
+                        break;
+                    }
                     try {
-                        jogadorLogado.sacar(valorSaque);
-                        exibirMensagemFormatada("Saque realizado com sucesso! Novo saldo: R$%.2f%n",
-                                jogadorLogado.getSaldo()); // Usa o método da interface
+                        long novoSaldo = aguardar(servico.sacar(email, valorSaque, UUID.randomUUID().toString()));
+                        exibirMensagem(Dinheiro.formatar(novoSaldo,
+                                new StringBuilder("Saque realizado com sucesso! Novo saldo: R$"))); // Usa o método da
+                                                                                                   // interface
                     } catch (RuntimeException e) {
                         exibirMensagem("Falha no saque: " + e.getMessage()); // Usa o método da interface
                     }
                     break;
                 case 5:
                     sistema.salvarParaCsv(ARQUIVO_DADOS_JOGADORES); // Salva os dados dos jogadores ao sair do jogo.
+                    historico.close(); // Grava as rodadas ainda em memória e encerra a thread gravadora.
+                    exibirMensagemFormatada("Semente do servidor revelada: %s%n", sorteio.revelar()); // Usa o
+                                                                                                       // método da
+                                                                                                       // interface
+                    fecharRegistro(registroRodadas);
                     exibirMensagem("Obrigado por jogar!"); // Usa o método da interface
                     scanner.close(); // Fecha o scanner ao sair.
                     return; // Sai do método iniciar e encerra o programa.
+                case 6:
+                    configurarLimites(jogadorLogado);
+                    break;
+                case 7:
+                    configurarSorteioVerificavel(sorteio);
+                    break;
                 default:
                     exibirMensagem("Opção inválida. Por favor, tente novamente."); // Usa o método da interface
                     break;
@@ -933,6 +1619,148 @@ public class Principal implements ExibidorDeMensagens { // Implementa a interfac
         }
     }
 
+    /**
+     * Lê um valor em reais digitado pelo jogador (ex: "25", "25.50" ou "25,50").
+     *
+     * @return O valor em centavos, ou -1 se o texto não for um valor válido.
+     */
+    private long lerValor() {
+        String texto = scanner.next();
+        scanner.nextLine(); // Consome a nova linha.
+        try {
+            return Dinheiro.interpretar(texto);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Lê uma quantidade de minutos digitada pelo jogador.
+     *
+     * @return Os minutos, ou -1 se o texto não for um número inteiro não negativo.
+     */
+    private long lerMinutos() {
+        String texto = scanner.next();
+        scanner.nextLine(); // Consome a nova linha.
+        try {
+            long minutos = Long.parseLong(texto);
+            return minutos < 0 ? -1 : minutos;
+        } catch (NumberFormatException e) {
+            return -1; // Frações como "0,5" não viram um limite de 0 minutos.
+        }
+    }
+
+    /**
+     * Aguarda o resultado de uma operação do serviço assíncrono.
+     *
+     * @param futuro O resultado pendente.
+     * @return O valor produzido pela operação.
+     * @throws RuntimeException O erro original da operação, se ela falhou.
+     */
+    private static <T> T aguardar(CompletableFuture<T> futuro) {
+        try {
+            return futuro.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause(); // Mantém a mensagem original para o jogador.
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Mostra as sementes do jogo comprovadamente justo e permite trocar a semente do
+     * cliente ou revelar a semente do servidor (que é então substituída por uma nova).
+     *
+     * @param sorteio As sementes do jogador.
+     */
+    private void configurarSorteioVerificavel(SorteioVerificavel sorteio) {
+        exibirMensagem("\n--- Jogo Comprovadamente Justo ---"); // Usa o método da interface
+        exibirMensagemFormatada("Compromisso do servidor: %s%n", sorteio.getCompromisso()); // Usa o método da
+                                                                                              // interface
+        exibirMensagemFormatada("Semente do cliente: %s (próximo nonce: %d)%n", sorteio.getSementeCliente(),
+                sorteio.getNonce()); // Usa o método da interface
+        exibirMensagem("1. Trocar semente do cliente  2. Revelar semente do servidor  3. Voltar"); // Usa o método da
+                                                                                                    // interface
+        int escolha = scanner.nextInt();
+        scanner.nextLine(); // Consome a nova linha.
+        if (escolha == 1) {
+            exibirMensagem("Digite a nova semente (letras, dígitos, '-' ou '_'):"); // Usa o método da interface
+            try {
+                String revelada = sorteio.trocarSementeCliente(scanner.nextLine().trim());
+                exibirMensagem("Semente do cliente alterada."); // Usa o método da interface
+                exibirMensagemFormatada("Semente do servidor revelada: %s%n", revelada); // Usa o método da
+                                                                                          // interface
+                exibirMensagemFormatada("Novo compromisso: %s%n", sorteio.getCompromisso()); // Usa o método da
+                                                                                               // interface
+            } catch (RuntimeException e) {
+                exibirMensagem(e.getMessage()); // Usa o método da interface
+            }
+        } else if (escolha == 2) {
+            exibirMensagemFormatada("Semente do servidor revelada: %s%n", sorteio.revelar()); // Usa o método da
+                                                                                               // interface
+            exibirMensagemFormatada("Novo compromisso: %s%n", sorteio.getCompromisso()); // Usa o método da interface
+        }
+    }
+
+    /**
+     * Fecha o registro de rodadas verificáveis, gravando o que ainda estiver em buffer.
+     *
+     * @param registro O registro, ou null se não pôde ser aberto.
+     */
+    private static void fecharRegistro(BufferedWriter registro) {
+        if (registro == null) {
+            return;
+        }
+        try {
+            registro.close();
+        } catch (IOException e) {
+            System.err.println("Erro ao fechar registro de rodadas verificáveis: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Permite ao jogador definir ou remover um limite de perda, aposta ou tempo de sessão.
+     *
+     * @param jogador O jogador logado.
+     */
+    private void configurarLimites(Jogador jogador) {
+        exibirMensagem("\n--- Limites de Jogo Responsável ---"); // Usa o método da interface
+        exibirMensagem("1. Limite de Perdas (R$)"); // Usa o método da interface
+        exibirMensagem("2. Limite de Apostas (R$)"); // Usa o método da interface
+        exibirMensagem("3. Limite de Tempo de Sessão (minutos)"); // Usa o método da interface
+        int escolhaTipo = scanner.nextInt();
+        exibirMensagem("Janela: 1. Última hora  2. Último dia  3. Última semana"); // Usa o método da interface
+        int escolhaJanela = scanner.nextInt();
+        if (escolhaTipo < 1 || escolhaTipo > 3 || escolhaJanela < 1 || escolhaJanela > 3) {
+            scanner.nextLine(); // Consome a nova linha.
+            exibirMensagem("Opção inválida. Nenhum limite foi alterado."); // Usa o método da interface
+            return;
+        }
+        TipoLimite tipo = TipoLimite.values()[escolhaTipo - 1];
+        JanelaLimite janela = JanelaLimite.values()[escolhaJanela - 1];
+        // Valores em dinheiro são lidos em reais e guardados em centavos; tempo, em minutos inteiros.
+        long valor;
+        if (tipo == TipoLimite.TEMPO_SESSAO) {
+            exibirMensagem("Digite o limite em minutos inteiros (0 remove o limite):"); // Usa o método da interface
+            valor = lerMinutos();
+        } else {
+            exibirMensagem("Digite o valor do limite (0 remove o limite):"); // Usa o método da interface
+            valor = lerValor();
+        }
+        if (valor < 0) {
+            exibirMensagem("Valor inválido. Nenhum limite foi alterado."); // Usa o método da interface
+            return;
+        }
+        if (valor == 0) {
+            jogador.removerLimite(tipo, janela);
+            exibirMensagem("Limite removido."); // Usa o método da interface
+            return;
+        }
+        jogador.definirLimite(tipo, janela, valor);
+        exibirMensagem("Limite definido com sucesso!"); // Usa o método da interface
+    }
+
     /**
      * Permite ao jogador selecionar o nível de dificuldade do caça-níqueis.
      *
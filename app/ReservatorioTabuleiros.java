@@ -0,0 +1,179 @@
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Reservatório de tabuleiros pré-gerados para uma configuração de slot.
+ * Threads de fundo sorteiam e avaliam tabuleiros com um slot-modelo próprio e os
+ * deixam em uma fila sem travas; a rodada só retira um resultado pronto e acerta a
+ * carteira. Cada tabuleiro é retirado uma única vez e não pertence a nenhum jogador
+ * até ser retirado, então nada é reaproveitado ou visto por outro jogador.
+ *
+ * <p>
+ * A profundidade alvo acompanha a demanda: é a quantidade de rodadas esperada em
+ * {@link #HORIZONTE_NANOS}, subindo logo que a demanda cresce (e dobrando quando a
+ * fila chega a esvaziar) e descendo devagar. Se a fila estiver vazia, a rodada gera
+ * o tabuleiro na hora, como sem o reservatório.
+ */
+class ReservatorioTabuleiros {
+    public static final int PROFUNDIDADE_MINIMA = 16;
+    public static final int CAPACIDADE_PADRAO = 4096;
+    static final long HORIZONTE_NANOS = 50_000_000; // Rodadas que o reservatório tenta cobrir: 50 ms de demanda.
+    private static final long INTERVALO_AJUSTE_NANOS = 10_000_000; // Recalcula a profundidade a cada 10 ms.
+
+    private final CacaNiquel modelo; // Usado apenas pelas threads de fundo.
+    private final ConcurrentLinkedQueue<TabuleiroPronto> fila = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger reservados = new AtomicInteger(); // Na fila ou sendo gerados.
+    private final int capacidade;
+    private final Thread[] trabalhadores;
+    private final LongAdder retirados = new LongAdder();
+    private final LongAdder faltas = new LongAdder();
+    private volatile int profundidadeAlvo = PROFUNDIDADE_MINIMA;
+    private volatile boolean ativo;
+    private volatile boolean dormindo; // Evita acordar trabalhadores que já estão produzindo.
+
+    // Estado do ajuste, usado só pelo primeiro trabalhador.
+    private long ultimoAjuste;
+    private long ultimaDemanda;
+    private long ultimasFaltas;
+    private double taxaPorSegundo;
+
+    /**
+     * Construtor da classe ReservatorioTabuleiros.
+     *
+     * @param modelo         Um slot exclusivo do reservatório com a configuração desejada.
+     * @param trabalhadores  Número de threads de fundo.
+     * @param capacidade     Profundidade máxima da fila.
+     */
+    public ReservatorioTabuleiros(CacaNiquel modelo, int trabalhadores, int capacidade) {
+        this.modelo = modelo;
+        this.capacidade = Math.max(PROFUNDIDADE_MINIMA, capacidade);
+        this.trabalhadores = new Thread[trabalhadores];
+        for (int i = 0; i < trabalhadores; i++) {
+            boolean ajusta = i == 0;
+            this.trabalhadores[i] = new Thread(() -> produzir(ajusta),
+                    "reservatorio-" + modelo.getClass().getSimpleName() + "-" + i);
+            this.trabalhadores[i].setDaemon(true);
+        }
+    }
+
+    /**
+     * Inicia as threads de fundo.
+     */
+    public void iniciar() {
+        ativo = true;
+        ultimoAjuste = System.nanoTime();
+        for (Thread t : trabalhadores) {
+            t.start();
+        }
+    }
+
+    /**
+     * Para as threads de fundo. Os tabuleiros restantes são descartados.
+     */
+    public void encerrar() {
+        ativo = false;
+        for (Thread t : trabalhadores) {
+            LockSupport.unpark(t);
+        }
+        fila.clear();
+    }
+
+    /**
+     * Verifica se um slot pode usar os tabuleiros deste reservatório.
+     *
+     * @param slot O slot.
+     * @return Verdadeiro se o slot tem a mesma classe e configuração do modelo.
+     */
+    public boolean compativelCom(CacaNiquel slot) {
+        return slot.getClass() == modelo.getClass() && slot.tamanho == modelo.tamanho
+                && slot.limiteCoringa == modelo.limiteCoringa && slot.simbolos.equals(modelo.simbolos);
+    }
+
+    /**
+     * Retira um tabuleiro pronto. Não bloqueia.
+     *
+     * @return O tabuleiro, ou null se a fila estiver vazia.
+     */
+    public TabuleiroPronto retirar() {
+        TabuleiroPronto pronto = fila.poll();
+        if (pronto == null) {
+            faltas.increment();
+            acordar();
+            return null;
+        }
+        retirados.increment();
+        if (reservados.decrementAndGet() < profundidadeAlvo / 2) {
+            acordar();
+        }
+        return pronto;
+    }
+
+    // Getters para as estatísticas.
+    public int getProfundidadeAlvo() {
+        return profundidadeAlvo;
+    }
+
+    public int getDisponiveis() {
+        return reservados.get();
+    }
+
+    public long getRetirados() {
+        return retirados.sum();
+    }
+
+    public long getFaltas() {
+        return faltas.sum();
+    }
+
+    private void acordar() {
+        if (dormindo) {
+            for (Thread t : trabalhadores) {
+                LockSupport.unpark(t);
+            }
+        }
+    }
+
+    private void produzir(boolean ajusta) {
+        while (ativo) {
+            if (ajusta) {
+                ajustarProfundidade();
+            }
+            int atual = reservados.get();
+            if (atual >= profundidadeAlvo) {
+                dormindo = true;
+                LockSupport.parkNanos(this, INTERVALO_AJUSTE_NANOS);
+                dormindo = false;
+                continue;
+            }
+            if (!reservados.compareAndSet(atual, atual + 1)) {
+                continue; // Outro trabalhador reservou a vaga.
+            }
+            String[][] tabuleiro = modelo.gerarTabuleiro();
+            fila.add(new TabuleiroPronto(tabuleiro, modelo.verificarVitoria(tabuleiro),
+                    modelo.verificarBonus(tabuleiro)));
+        }
+    }
+
+    private void ajustarProfundidade() {
+        long agora = System.nanoTime();
+        long decorrido = agora - ultimoAjuste;
+        if (decorrido < INTERVALO_AJUSTE_NANOS) {
+            return;
+        }
+        long demanda = retirados.sum() + faltas.sum(); // Faltas também são rodadas que queriam um tabuleiro.
+        long totalFaltas = faltas.sum();
+        double taxa = (demanda - ultimaDemanda) * 1e9 / decorrido;
+        // Sobe imediatamente com a demanda e desce devagar, para aguentar rajadas seguidas.
+        taxaPorSegundo = Math.max(taxa, 0.9 * taxaPorSegundo + 0.1 * taxa);
+        long alvo = (long) (taxaPorSegundo * HORIZONTE_NANOS / 1e9);
+        if (totalFaltas > ultimasFaltas) {
+            alvo = Math.max(alvo, 2L * profundidadeAlvo); // A fila esvaziou: cresce mais rápido.
+        }
+        profundidadeAlvo = (int) Math.max(PROFUNDIDADE_MINIMA, Math.min(capacidade, alvo));
+        ultimoAjuste = agora;
+        ultimaDemanda = demanda;
+        ultimasFaltas = totalFaltas;
+    }
+}
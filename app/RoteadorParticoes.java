@@ -0,0 +1,440 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Roteador fino que distribui as contas entre vários {@link NoParticao} por hash
+ * consistente do email e encaminha cadastro, login e operações de saldo ao nó dono.
+ * Adicionar um nó move apenas as contas dos arcos que ele passa a ocupar; durante
+ * a migração as demais requisições esperam, para que nenhuma escrita se perca.
+ *
+ * <p>
+ * A migração tem duas fases. Na preparação, cada nó antigo congela e exporta as contas
+ * que saem, com lançamentos e chaves de idempotência, e o novo nó as importa. Qualquer
+ * falha desfaz tudo e o anel não muda, então basta chamar {@link #adicionarNo} de novo.
+ * A confirmação é a troca do anel; depois dela as cópias antigas são removidas, e as
+ * remoções que falharem ficam pendentes e são refeitas por {@link #concluirRemocoes()}.
+ */
+public class RoteadorParticoes {
+    private final Map<String, ConcurrentLinkedQueue<Conexao>> conexoes = new ConcurrentHashMap<>();
+    private final ReentrantReadWriteLock travaAnel = new ReentrantReadWriteLock();
+    private final Map<String, Set<String>> remocoesPendentes = new LinkedHashMap<>(); // Nó antigo → emails.
+    private volatile AnelConsistente anel;
+
+    /**
+     * Construtor da classe RoteadorParticoes.
+     *
+     * @param nos Os endereços dos nós no formato host:porta.
+     */
+    public RoteadorParticoes(List<String> nos) {
+        this.anel = new AnelConsistente(nos, AnelConsistente.PONTOS_VIRTUAIS_PADRAO);
+    }
+
+    public void cadastrar(String email, String senha, LocalDate dataNasc, String apelido) {
+        encaminhar(email, "CADASTRAR", email, senha, dataNasc.toString(), apelido);
+    }
+
+    /**
+     * Autentica um jogador no nó dono da conta.
+     *
+     * @param email O email do jogador.
+     * @param senha A senha digitada.
+     * @return O apelido do jogador autenticado.
+     * @throws RuntimeException Se o login for recusado.
+     */
+    public String login(String email, String senha) {
+        return encaminhar(email, "LOGIN", email, senha);
+    }
+
+    // Valores em centavos; no protocolo trafegam como texto no formato de Dinheiro.
+    public long consultarSaldo(String email) {
+        return Dinheiro.interpretar(encaminhar(email, "SALDO", email));
+    }
+
+    public long depositar(String email, long valor, String chaveIdempotencia) {
+        return Dinheiro.interpretar(encaminhar(email, "DEPOSITAR", email,
+                Dinheiro.paraTexto(valor), chaveIdempotencia));
+    }
+
+    public long sacar(String email, long valor, String chaveIdempotencia) {
+        return Dinheiro.interpretar(encaminhar(email, "SACAR", email,
+                Dinheiro.paraTexto(valor), chaveIdempotencia));
+    }
+
+    /**
+     * Retorna os nós atuais do anel.
+     *
+     * @return Os endereços dos nós.
+     */
+    public List<String> getNos() {
+        return anel.getNos();
+    }
+
+    /**
+     * Adiciona um nó e move para ele as contas que passam a lhe pertencer.
+     *
+     * @param novoNo O endereço host:porta do novo nó, já em execução.
+     * @return Quantas contas foram movidas.
+     * @throws RuntimeException Se a migração falhar (nesse caso ela é desfeita e o anel não muda)
+     *                          ou se ainda houver cópias antigas de uma migração anterior por remover.
+     */
+    public int adicionarNo(String novoNo) {
+        travaAnel.writeLock().lock();
+        try {
+            if (concluirRemocoes() > 0) {
+                throw new RuntimeException("Há contas de uma migração anterior ainda não removidas; "
+                        + "tente novamente.");
+            }
+            AnelConsistente novoAnel = anel.comNo(novoNo);
+            String membros = String.join(",", novoAnel.getNos());
+            Map<String, List<String>> exportadas = new LinkedHashMap<>(); // Nó antigo → contas que saem dele.
+            List<String> importadas = new ArrayList<>();
+            try {
+                // Fase 1: cada nó antigo congela e exporta as contas; o novo nó as importa.
+                for (String no : anel.getNos()) {
+                    exportadas.put(no, exportar(no, novoNo, membros));
+                }
+                for (List<String> linhas : exportadas.values()) {
+                    for (String linha : linhas) {
+                        enviar(novoNo, "IMPORTAR", linha.split("\t", -1));
+                        importadas.add(emailDaLinha(linha));
+                    }
+                }
+            } catch (RuntimeException e) {
+                desfazerMigracao(novoNo, importadas);
+                throw new RuntimeException("Migração para " + novoNo + " desfeita: " + e.getMessage(), e);
+            }
+
+            // Fase 2: a troca do anel confirma a migração; as cópias antigas saem depois.
+            anel = novoAnel;
+            int movidas = 0;
+            for (Map.Entry<String, List<String>> entrada : exportadas.entrySet()) {
+                Set<String> emails = remocoesPendentes.computeIfAbsent(entrada.getKey(), k -> new LinkedHashSet<>());
+                for (String linha : entrada.getValue()) {
+                    emails.add(emailDaLinha(linha));
+                }
+                movidas += entrada.getValue().size();
+            }
+            concluirRemocoes(); // O que falhar aqui fica pendente.
+            return movidas;
+        } finally {
+            travaAnel.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove dos nós antigos as contas já movidas e descongela esses nós. Pode ser chamado
+     * a qualquer momento; remover de novo uma conta já removida não tem efeito.
+     *
+     * @return Quantas remoções continuam pendentes por falha de comunicação.
+     */
+    public int concluirRemocoes() {
+        travaAnel.writeLock().lock();
+        try {
+            int restantes = 0;
+            Iterator<Map.Entry<String, Set<String>>> nos = remocoesPendentes.entrySet().iterator();
+            while (nos.hasNext()) {
+                Map.Entry<String, Set<String>> entrada = nos.next();
+                String no = entrada.getKey();
+                Set<String> emails = entrada.getValue();
+                try {
+                    Iterator<String> it = emails.iterator();
+                    while (it.hasNext()) {
+                        enviar(no, "REMOVER", it.next());
+                        it.remove();
+                    }
+                    enviar(no, "CONCLUIR");
+                    nos.remove();
+                } catch (RuntimeException e) {
+                    System.err.println("Remoção pendente em " + no + ": " + e.getMessage());
+                    restantes += Math.max(1, emails.size()); // Falta ao menos o CONCLUIR.
+                }
+            }
+            return restantes;
+        } finally {
+            travaAnel.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Desfaz uma migração que falhou: apaga do novo nó o que já foi importado e descongela
+     * os nós antigos. Falhas aqui só são registradas; o anel antigo continua valendo.
+     */
+    private void desfazerMigracao(String novoNo, List<String> importadas) {
+        for (String email : importadas) {
+            try {
+                enviar(novoNo, "REMOVER", email);
+            } catch (RuntimeException e) {
+                // O novo nó fora do anel não é consultado; uma nova tentativa substitui a cópia.
+                System.err.println("Não foi possível desfazer a importação em " + novoNo + ": " + e.getMessage());
+                break;
+            }
+        }
+        for (String no : anel.getNos()) {
+            try {
+                enviar(no, "CANCELAR");
+            } catch (RuntimeException e) {
+                System.err.println("Não foi possível descongelar " + no + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private static String emailDaLinha(String linha) {
+        return linha.substring(0, linha.indexOf(','));
+    }
+
+    /**
+     * Fecha todas as conexões abertas com os nós.
+     */
+    public void fechar() {
+        for (ConcurrentLinkedQueue<Conexao> fila : conexoes.values()) {
+            Conexao conexao;
+            while ((conexao = fila.poll()) != null) {
+                conexao.fechar();
+            }
+        }
+    }
+
+    private String encaminhar(String email, String comando, String... argumentos) {
+        travaAnel.readLock().lock();
+        try {
+            return enviar(anel.noPara(email), comando, argumentos);
+        } finally {
+            travaAnel.readLock().unlock();
+        }
+    }
+
+    private List<String> exportar(String no, String destino, String membros) {
+        Conexao conexao = obterConexao(no);
+        try {
+            int quantidade = Integer.parseInt(conexao.requisitar("EXPORTAR", destino, membros));
+            List<String> linhas = new ArrayList<>(quantidade);
+            for (int i = 0; i < quantidade; i++) {
+                linhas.add(conexao.lerLinha());
+            }
+            devolverConexao(no, conexao);
+            return linhas;
+        } catch (RuntimeException e) {
+            devolverConexao(no, conexao); // Erro de negócio: a conexão continua utilizável.
+            throw e;
+        } catch (IOException e) {
+            conexao.fechar();
+            throw new RuntimeException("Falha de comunicação com " + no + ": " + e.getMessage(), e);
+        }
+    }
+
+    private String enviar(String no, String comando, String... argumentos) {
+        Conexao conexao = obterConexao(no);
+        try {
+            String resposta = conexao.requisitar(comando, argumentos);
+            devolverConexao(no, conexao);
+            return resposta;
+        } catch (RuntimeException e) {
+            devolverConexao(no, conexao); // Erro de negócio: a conexão continua utilizável.
+            throw e;
+        } catch (IOException e) {
+            conexao.fechar(); // Conexão em estado desconhecido: não volta para o pool.
+            throw new RuntimeException("Falha de comunicação com " + no + ": " + e.getMessage(), e);
+        }
+    }
+
+    private Conexao obterConexao(String no) {
+        Conexao conexao = conexoes.computeIfAbsent(no, k -> new ConcurrentLinkedQueue<>()).poll();
+        if (conexao != null) {
+            return conexao;
+        }
+        try {
+            return new Conexao(no);
+        } catch (IOException e) {
+            throw new RuntimeException("Não foi possível conectar a " + no + ": " + e.getMessage(), e);
+        }
+    }
+
+    private void devolverConexao(String no, Conexao conexao) {
+        conexoes.get(no).offer(conexao);
+    }
+
+    /**
+     * Conexão TCP com um nó, usada por uma requisição de cada vez.
+     */
+    private static final class Conexao {
+        private final Socket socket;
+        private final BufferedReader reader;
+        private final BufferedWriter writer;
+
+        Conexao(String endereco) throws IOException {
+            int separador = endereco.lastIndexOf(':');
+            this.socket = new Socket(endereco.substring(0, separador),
+                    Integer.parseInt(endereco.substring(separador + 1)));
+            socket.setTcpNoDelay(true);
+            this.reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            this.writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+        }
+
+        /**
+         * Envia uma requisição e devolve o valor da resposta.
+         *
+         * @throws RuntimeException Se o nó responder com erro (a conexão continua utilizável).
+         * @throws IOException      Se a comunicação falhar.
+         */
+        String requisitar(String comando, String... argumentos) throws IOException {
+            for (String argumento : argumentos) {
+                if (argumento.indexOf('\t') >= 0 || argumento.indexOf('\n') >= 0) {
+                    throw new RuntimeException("Campo com caractere inválido.");
+                }
+            }
+            writer.write(comando);
+            for (String argumento : argumentos) {
+                writer.write('\t');
+                writer.write(argumento);
+            }
+            writer.write('\n');
+            writer.flush();
+            String resposta = lerLinha();
+            int separador = resposta.indexOf('\t');
+            String status = separador < 0 ? resposta : resposta.substring(0, separador);
+            String valor = separador < 0 ? "" : resposta.substring(separador + 1);
+            if (!status.equals("OK")) {
+                throw new RuntimeException(valor);
+            }
+            return valor;
+        }
+
+        String lerLinha() throws IOException {
+            String linha = reader.readLine();
+            if (linha == null) {
+                throw new IOException("Conexão encerrada pelo nó.");
+            }
+            return linha;
+        }
+
+        void fechar() {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // Nada a fazer.
+            }
+        }
+    }
+
+    /**
+     * Demonstração de escala em localhost: inicia nós em JVMs separadas, um de cada
+     * vez, mede a vazão de login e consulta de saldo a cada passo e mostra quantas
+     * contas cada novo nó recebeu.
+     * Uso: {@code java RoteadorParticoes <maxNos> [contas] [clientes] [segundos]}
+     *
+     * @param args Os argumentos da linha de comando.
+     * @throws Exception Se um processo não puder ser iniciado.
+     */
+    public static void main(String[] args) throws Exception {
+        int maxNos = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int contas = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+        int clientes = args.length > 2 ? Integer.parseInt(args[2]) : 64;
+        int segundos = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+        int portaBase = 7100;
+
+        File diretorio = Files.createTempDirectory("particoes").toFile();
+        String java = ProcessHandle.current().info().command().orElse("java");
+        String classpath = System.getProperty("java.class.path");
+        List<Process> processos = new ArrayList<>();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> processos.forEach(Process::destroy)));
+
+        RoteadorParticoes roteador = null;
+        try {
+            for (int n = 1; n <= maxNos; n++) {
+                int porta = portaBase + n;
+                String endereco = "localhost:" + porta;
+                processos.add(new ProcessBuilder(java, "-cp", classpath, "NoParticao", Integer.toString(porta),
+                        new File(diretorio, "jogadores-" + n + ".csv").getPath())
+                        .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                        .redirectError(ProcessBuilder.Redirect.INHERIT)
+                        .start());
+                aguardarPorta(porta);
+
+                if (roteador == null) {
+                    roteador = new RoteadorParticoes(List.of(endereco));
+                    cadastrarContas(roteador, contas);
+                    System.out.printf("%d contas cadastradas em %s%n", contas, endereco);
+                } else {
+                    int movidas = roteador.adicionarNo(endereco);
+                    System.out.printf("Nó %s adicionado: %d contas movidas (%.1f%% do total)%n", endereco, movidas,
+                            100.0 * movidas / contas);
+                }
+                double vazao = medirVazao(roteador, contas, clientes, segundos);
+                System.out.printf("%d nó(s): %.0f operações/s%n", n, vazao);
+            }
+        } finally {
+            if (roteador != null) {
+                roteador.fechar();
+            }
+            processos.forEach(Process::destroy);
+        }
+    }
+
+    private static void aguardarPorta(int porta) throws InterruptedException {
+        for (int tentativa = 0; tentativa < 100; tentativa++) {
+            try {
+                new Socket("localhost", porta).close(); // Só testa se a porta já aceita conexões.
+                return;
+            } catch (IOException e) {
+                Thread.sleep(100); // O nó ainda está subindo.
+            }
+        }
+        throw new RuntimeException("Nó na porta " + porta + " não respondeu.");
+    }
+
+    private static void cadastrarContas(RoteadorParticoes roteador, int contas) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        for (int i = 0; i < contas; i++) {
+            String email = "jogador" + i + "@particao.local";
+            executor.submit(() -> roteador.cadastrar(email, "senha", LocalDate.of(1990, 1, 1), "jogador"));
+        }
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.MINUTES);
+    }
+
+    private static double medirVazao(RoteadorParticoes roteador, int contas, int clientes, int segundos)
+            throws InterruptedException {
+        LongAdder operacoes = new LongAdder();
+        long prazo = System.nanoTime() + TimeUnit.SECONDS.toNanos(segundos);
+        ExecutorService executor = Executors.newFixedThreadPool(clientes);
+        for (int c = 0; c < clientes; c++) {
+            executor.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < prazo) {
+                    String email = "jogador" + random.nextInt(contas) + "@particao.local";
+                    roteador.login(email, "senha");
+                    roteador.depositar(email, 100, UUID.randomUUID().toString());
+                    roteador.consultarSaldo(email);
+                    operacoes.add(3);
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(segundos + 30, TimeUnit.SECONDS);
+        return operacoes.sum() / (double) segundos;
+    }
+}
@@ -0,0 +1,250 @@
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Caixa de mensagens de um jogador (ator leve).
+ * As tarefas de um mesmo jogador são executadas uma de cada vez e na ordem de
+ * chegada, sem travas globais: no máximo uma execução da caixa está agendada no
+ * executor por vez. A fila é limitada; quando cheia, novas tarefas são recusadas.
+ * Uma caixa que esvazia se aposenta e avisa o dono, que cria outra no próximo envio.
+ */
+final class CaixaDeMensagens implements Runnable {
+    private static final int LOTE = 32; // Tarefas por turno antes de ceder o executor a outras caixas.
+    private static final int APOSENTADA = -1; // Valor de pendentes depois que a caixa se aposenta.
+
+    /**
+     * Resultado de um envio.
+     */
+    enum Envio {
+        ACEITA,
+        CHEIA,
+        APOSENTADA // A caixa não aceita mais tarefas: envie para uma caixa nova.
+    }
+
+    private final ConcurrentLinkedQueue<Runnable> fila = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendentes = new AtomicInteger();
+    private final AtomicBoolean agendada = new AtomicBoolean();
+    private final Executor executor;
+    private final int capacidade;
+    private final Consumer<CaixaDeMensagens> aoAposentar;
+
+    CaixaDeMensagens(Executor executor, int capacidade, Consumer<CaixaDeMensagens> aoAposentar) {
+        this.executor = executor;
+        this.capacidade = capacidade;
+        this.aoAposentar = aoAposentar;
+    }
+
+    /**
+     * Enfileira uma tarefa.
+     *
+     * @param tarefa A tarefa a executar.
+     * @return Se a tarefa foi aceita, recusada por caixa cheia ou recusada por caixa aposentada.
+     */
+    Envio enviar(Runnable tarefa) {
+        int atual;
+        do {
+            atual = pendentes.get();
+            if (atual == APOSENTADA) {
+                return Envio.APOSENTADA;
+            }
+            if (atual >= capacidade) {
+                return Envio.CHEIA;
+            }
+        } while (!pendentes.compareAndSet(atual, atual + 1));
+        fila.add(tarefa);
+        agendar();
+        return Envio.ACEITA;
+    }
+
+    int getPendentes() {
+        return Math.max(0, pendentes.get());
+    }
+
+    private void agendar() {
+        if (agendada.compareAndSet(false, true)) {
+            executor.execute(this);
+        }
+    }
+
+    @Override
+    public void run() {
+        try {
+            Runnable tarefa;
+            for (int i = 0; i < LOTE && (tarefa = fila.poll()) != null; i++) {
+                pendentes.decrementAndGet();
+                tarefa.run(); // As tarefas completam seus próprios futuros, inclusive em caso de erro.
+            }
+        } finally {
+            // Mesmo que uma tarefa lance um Error, a caixa não fica marcada como agendada para sempre.
+            // A aposentadoria acontece antes de soltar a marca: nenhuma outra execução está ativa.
+            if (fila.isEmpty() && pendentes.compareAndSet(0, APOSENTADA)) {
+                aoAposentar.accept(this);
+            } else {
+                agendada.set(false);
+                if (!fila.isEmpty()) {
+                    agendar(); // Chegaram tarefas durante o turno, ou o lote acabou antes da fila.
+                }
+            }
+        }
+    }
+}
+
+/**
+ * Fachada assíncrona das operações de jogo.
+ * Cada jogador tem sua própria {@link CaixaDeMensagens}, então as operações de um
+ * jogador são serializadas enquanto jogadores diferentes avançam em paralelo.
+ * Um jogador que inunda o serviço tem as requisições excedentes recusadas com
+ * {@link RejectedExecutionException}, sem atrasar os demais. Só jogadores com
+ * requisições em andamento ocupam uma caixa no mapa.
+ */
+class ServicoJogoAssincrono {
+    public static final int CAPACIDADE_PADRAO = 64; // Requisições pendentes por jogador.
+
+    private final SistemaAutenticacao sistema;
+    private final LivroRazao livroRazao;
+    private final Executor executor;
+    private final int capacidade;
+    private final Map<String, CaixaDeMensagens> caixas = new ConcurrentHashMap<>();
+    private final LongAdder recusadas = new LongAdder();
+
+    /**
+     * Construtor da classe ServicoJogoAssincrono usando o pool comum de threads.
+     *
+     * @param sistema    O sistema onde as contas estão cadastradas.
+     * @param livroRazao O livro-razão por onde passam as operações de saldo.
+     */
+    public ServicoJogoAssincrono(SistemaAutenticacao sistema, LivroRazao livroRazao) {
+        this(sistema, livroRazao, ForkJoinPool.commonPool(), CAPACIDADE_PADRAO);
+    }
+
+    /**
+     * Construtor da classe ServicoJogoAssincrono.
+     *
+     * @param sistema    O sistema onde as contas estão cadastradas.
+     * @param livroRazao O livro-razão por onde passam as operações de saldo.
+     * @param executor   O executor que roda as caixas de mensagens.
+     * @param capacidade Número máximo de requisições pendentes por jogador.
+     */
+    public ServicoJogoAssincrono(SistemaAutenticacao sistema, LivroRazao livroRazao, Executor executor,
+            int capacidade) {
+        this.sistema = sistema;
+        this.livroRazao = livroRazao;
+        this.executor = executor;
+        this.capacidade = capacidade;
+    }
+
+    /**
+     * Joga uma rodada no slot informado.
+     *
+     * @param email       O email do jogador.
+     * @param slot        O slot escolhido (deve estar configurado com o mesmo livro-razão).
+     * @param valorAposta O valor da aposta, em centavos.
+     * @return O resultado de {@link CacaNiquel#jogar(Jogador, long)}.
+     */
+    public CompletableFuture<Object[]> jogar(String email, CacaNiquel slot, long valorAposta) {
+        return enviar(email, jogador -> slot.jogar(jogador, valorAposta));
+    }
+
+    /**
+     * Deposita um valor.
+     *
+     * @param email             O email do jogador.
+     * @param valor             O valor a depositar, em centavos.
+     * @param chaveIdempotencia A chave da operação no livro-razão.
+     * @return O novo saldo, em centavos.
+     */
+    public CompletableFuture<Long> depositar(String email, long valor, String chaveIdempotencia) {
+        return enviar(email, jogador -> {
+            livroRazao.depositar(jogador, valor, chaveIdempotencia);
+            return jogador.getSaldoCentavos();
+        });
+    }
+
+    /**
+     * Saca um valor.
+     *
+     * @param email             O email do jogador.
+     * @param valor             O valor a sacar, em centavos.
+     * @param chaveIdempotencia A chave da operação no livro-razão.
+     * @return O novo saldo, em centavos.
+     */
+    public CompletableFuture<Long> sacar(String email, long valor, String chaveIdempotencia) {
+        return enviar(email, jogador -> {
+            livroRazao.sacar(jogador, valor, chaveIdempotencia);
+            return jogador.getSaldoCentavos();
+        });
+    }
+
+    /**
+     * Consulta o saldo depois de todas as operações já enviadas pelo jogador.
+     *
+     * @param email O email do jogador.
+     * @return O saldo, em centavos.
+     */
+    public CompletableFuture<Long> consultarSaldo(String email) {
+        return enviar(email, Jogador::getSaldoCentavos);
+    }
+
+    /**
+     * Retorna quantas requisições foram recusadas por caixas cheias.
+     *
+     * @return O total de requisições recusadas.
+     */
+    public long getRecusadas() {
+        return recusadas.sum();
+    }
+
+    /**
+     * Retorna quantas requisições do jogador aguardam execução.
+     *
+     * @param email O email do jogador.
+     * @return O número de requisições pendentes.
+     */
+    public int getPendentes(String email) {
+        CaixaDeMensagens caixa = caixas.get(email);
+        return caixa == null ? 0 : caixa.getPendentes();
+    }
+
+    private <T> CompletableFuture<T> enviar(String email, Function<Jogador, T> operacao) {
+        Jogador jogador = sistema.buscar(email);
+        if (jogador == null) {
+            return CompletableFuture.failedFuture(new RuntimeException("Email não cadastrado."));
+        }
+        CompletableFuture<T> futuro = new CompletableFuture<>();
+        Runnable tarefa = () -> {
+            try {
+                futuro.complete(operacao.apply(jogador));
+            } catch (RuntimeException e) {
+                futuro.completeExceptionally(e);
+            } catch (Error e) {
+                futuro.completeExceptionally(e); // Quem espera o futuro não fica bloqueado.
+                throw e;
+            }
+        };
+        CaixaDeMensagens.Envio envio;
+        do {
+            CaixaDeMensagens caixa = caixas.computeIfAbsent(email,
+                    k -> new CaixaDeMensagens(executor, capacidade, c -> caixas.remove(k, c)));
+            envio = caixa.enviar(tarefa);
+            if (envio == CaixaDeMensagens.Envio.APOSENTADA) {
+                caixas.remove(email, caixa); // Caso a caixa ainda não tenha saído do mapa.
+            }
+        } while (envio == CaixaDeMensagens.Envio.APOSENTADA);
+        if (envio == CaixaDeMensagens.Envio.CHEIA) {
+            recusadas.increment();
+            futuro.completeExceptionally(
+                    new RejectedExecutionException("Muitas requisições pendentes. Tente novamente em instantes."));
+        }
+        return futuro;
+    }
+}
@@ -0,0 +1,196 @@
+import java.io.IOException;
+import java.io.Writer;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.HexFormat;
+
+/**
+ * Sorteio comprovadamente justo (provably fair) das rodadas de um jogador.
+ * Antes de jogar, o jogador recebe o compromisso {@code SHA-256(sementeServidor)}; cada
+ * tabuleiro é derivado de HMAC(sementeServidor, sementeCliente:nonce) com a mesma
+ * distribuição de {@code CacaNiquel.gerarTabuleiro}. Ao revelar a semente do servidor,
+ * qualquer um pode conferir que ela corresponde ao compromisso e recalcular os tabuleiros.
+ *
+ * <p>
+ * Quando há um registro, cada rodada é gravada como
+ * {@code compromisso,tamanho,simbolos,coringas,sementeCliente,nonce,tabuleiro} e cada
+ * revelação como {@code R,compromisso,sementeServidor}, no formato lido pelo
+ * {@link VerificadorRodadas}.
+ */
+class SorteioVerificavel {
+    private static final SecureRandom ALEATORIO_SEGURO = new SecureRandom();
+    private static final HexFormat HEX = HexFormat.of();
+
+    private byte[] sementeServidor;
+    private String compromisso;
+    private FluxoHmac fluxo;
+    private String sementeCliente;
+    private long nonce;
+    private final Writer registro; // Opcional; recebe rodadas e revelações.
+
+    /**
+     * Construtor da classe SorteioVerificavel, com uma nova semente de servidor.
+     *
+     * @param sementeCliente A semente escolhida pelo jogador.
+     * @param registro       Onde gravar rodadas e revelações, ou null.
+     * @throws RuntimeException Se a semente do cliente for inválida.
+     */
+    public SorteioVerificavel(String sementeCliente, Writer registro) {
+        validarSementeCliente(sementeCliente);
+        this.sementeCliente = sementeCliente;
+        this.registro = registro;
+        trocarSementeServidor();
+    }
+
+    /**
+     * Cria uma semente de cliente aleatória para jogadores que não escolheram uma.
+     *
+     * @return 16 caracteres hexadecimais.
+     */
+    public static String novaSementeCliente() {
+        byte[] bytes = new byte[8];
+        ALEATORIO_SEGURO.nextBytes(bytes);
+        return HEX.formatHex(bytes);
+    }
+
+    /**
+     * Retorna o compromisso da semente do servidor em uso (SHA-256 em hexadecimal).
+     *
+     * @return O compromisso publicado antes das rodadas.
+     */
+    public synchronized String getCompromisso() {
+        return compromisso;
+    }
+
+    public synchronized String getSementeCliente() {
+        return sementeCliente;
+    }
+
+    /**
+     * Retorna o nonce da próxima rodada.
+     *
+     * @return O número de rodadas já sorteadas com o par de sementes atual.
+     */
+    public synchronized long getNonce() {
+        return nonce;
+    }
+
+    /**
+     * Troca a semente do cliente. A semente do servidor em uso é revelada e substituída
+     * junto (com nonce zero): como o nonce recomeça, manter a mesma semente do servidor
+     * permitiria voltar a uma semente de cliente antiga e rejogar tabuleiros já vistos.
+     *
+     * @param sementeCliente A nova semente.
+     * @return A semente do servidor revelada, em hexadecimal.
+     * @throws RuntimeException Se a semente for inválida (nesse caso nada muda).
+     */
+    public synchronized String trocarSementeCliente(String sementeCliente) {
+        validarSementeCliente(sementeCliente);
+        String revelada = revelar(); // Também troca a semente do servidor e zera o nonce.
+        this.sementeCliente = sementeCliente;
+        return revelada;
+    }
+
+    /**
+     * Sorteia o tabuleiro da próxima rodada e avança o nonce.
+     *
+     * @param motor     O motor com os parâmetros do slot.
+     * @param tabuleiro O tabuleiro a preencher.
+     * @return O nonce usado na rodada.
+     */
+    public synchronized long sortear(MotorGiros motor, byte[] tabuleiro) {
+        long usado = nonce++;
+        fluxo.iniciarRodada(sementeCliente, usado);
+        motor.sortear(fluxo, tabuleiro);
+        if (registro != null) {
+            try {
+                registro.write(compromisso + "," + motor.getTamanho() + "," + motor.getQuantidadeSimbolos() + ","
+                        + motor.getLimiteCoringa() + "," + sementeCliente + "," + usado + ","
+                        + paraTexto(tabuleiro) + "\n");
+            } catch (IOException e) {
+                System.err.println("Erro ao registrar rodada verificável: " + e.getMessage());
+            }
+        }
+        return usado;
+    }
+
+    /**
+     * Revela a semente do servidor em uso e passa a usar uma nova (com nonce zero).
+     * A partir daí, as rodadas anteriores podem ser conferidas.
+     *
+     * @return A semente revelada, em hexadecimal.
+     */
+    public synchronized String revelar() {
+        String revelada = HEX.formatHex(sementeServidor);
+        if (registro != null) {
+            try {
+                registro.write("R," + compromisso + "," + revelada + "\n");
+                registro.flush();
+            } catch (IOException e) {
+                System.err.println("Erro ao registrar semente revelada: " + e.getMessage());
+            }
+        }
+        trocarSementeServidor();
+        return revelada;
+    }
+
+    private void trocarSementeServidor() {
+        sementeServidor = new byte[32];
+        ALEATORIO_SEGURO.nextBytes(sementeServidor);
+        compromisso = calcularCompromisso(sementeServidor);
+        fluxo = new FluxoHmac(sementeServidor);
+        nonce = 0;
+    }
+
+    /**
+     * Deriva o tabuleiro de uma rodada a partir das sementes, como na hora do jogo.
+     *
+     * @param fluxo          Um fluxo criado com a semente do servidor.
+     * @param sementeCliente A semente do cliente.
+     * @param nonce          O nonce da rodada.
+     * @param motor          O motor com os parâmetros do slot.
+     * @param tabuleiro      O tabuleiro a preencher.
+     */
+    static void derivar(FluxoHmac fluxo, String sementeCliente, long nonce, MotorGiros motor, byte[] tabuleiro) {
+        fluxo.iniciarRodada(sementeCliente, nonce);
+        motor.sortear(fluxo, tabuleiro);
+    }
+
+    /**
+     * Calcula o compromisso de uma semente do servidor.
+     *
+     * @param sementeServidor A semente.
+     * @return O SHA-256 da semente, em hexadecimal.
+     */
+    static String calcularCompromisso(byte[] sementeServidor) {
+        try {
+            return HEX.formatHex(MessageDigest.getInstance("SHA-256").digest(sementeServidor));
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException("SHA-256 indisponível.", e);
+        }
+    }
+
+    /**
+     * Representa o tabuleiro como texto, um caractere por posição, linha a linha
+     * (os símbolos de {@code CacaNiquel.SIMBOLOS} e '*' para curinga).
+     *
+     * @param tabuleiro O tabuleiro linearizado.
+     * @return O texto do tabuleiro.
+     */
+    static String paraTexto(byte[] tabuleiro) {
+        char[] texto = new char[tabuleiro.length];
+        for (int i = 0; i < tabuleiro.length; i++) {
+            texto[i] = tabuleiro[i] == MotorGiros.CORINGA ? '*' : CacaNiquel.SIMBOLOS.get(tabuleiro[i]).charAt(0);
+        }
+        return new String(texto);
+    }
+
+    private static void validarSementeCliente(String sementeCliente) {
+        if (sementeCliente == null || sementeCliente.isEmpty() || sementeCliente.length() > 64
+                || !sementeCliente.chars().allMatch(c -> c < 128 && (Character.isLetterOrDigit(c) || c == '-'
+                        || c == '_'))) {
+            throw new RuntimeException("Semente do cliente inválida (use até 64 letras, dígitos, '-' ou '_').");
+        }
+    }
+}
@@ -0,0 +1,779 @@
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Stream;
+
+/**
+ * Suíte de regressão de desempenho ligada às user stories ({@code user-story/*.feature}).
+ * Cada cenário vinculado a um arquivo .feature é executado contra as classes reais duas
+ * vezes: uma verificação funcional das regras descritas no cenário e uma microcarga
+ * cronometrada (ex: logins simultâneos ou rodadas por slot). A mediana da vazão e do p99
+ * entre as repetições é comparada com os orçamentos gravados em {@link #ARQUIVO_ORCAMENTOS};
+ * a suíte falha (código de saída 1) se uma regra for violada, se um cenário não tiver
+ * orçamento ou se um orçamento for ultrapassado além da tolerância.
+ *
+ * <p>
+ * Uso: {@code java SuiteDesempenho [--tolerancia=0.25] [--folga-us=1] [--escala=1]
+ * [--repeticoes=5] [--cenarios=login,saque] [--features=../user-story]
+ * [--orcamentos=orcamentos-desempenho.properties] [--calibrar]}
+ *
+ * <p>
+ * Com {@code --calibrar}, as medições da execução passam a ser os orçamentos (use na
+ * máquina em que a suíte roda, a partir de uma versão de referência). Os orçamentos são
+ * absolutos e só valem para o ambiente em que foram calibrados, gravado junto com eles
+ * (processadores, sistema, JVM e escala): em outro ambiente a suíte só mede e avisa, sem
+ * comparar vazão e p99; as verificações funcionais continuam valendo.
+ */
+public class SuiteDesempenho {
+    static final String ARQUIVO_ORCAMENTOS = "orcamentos-desempenho.properties";
+    private static final String SENHA = "senha-correta";
+
+    /**
+     * Um cenário de uma user story: regras verificáveis e uma operação para a microcarga.
+     */
+    private abstract static class Cenario {
+        final String chave; // Prefixo dos orçamentos.
+        final String feature; // Nome do arquivo .feature, sem extensão.
+        final int threads;
+        final int operacoesPorThread;
+
+        Cenario(String chave, String feature, int threads, int operacoesPorThread) {
+            this.chave = chave;
+            this.feature = feature;
+            this.threads = threads;
+            this.operacoesPorThread = operacoesPorThread;
+        }
+
+        /**
+         * Verifica as regras do cenário.
+         *
+         * @throws RuntimeException Se alguma regra for violada.
+         */
+        abstract void verificar();
+
+        /**
+         * Prepara o estado de uma thread da microcarga.
+         *
+         * @param thread O índice da thread.
+         * @return A operação medida, executada uma vez por iteração.
+         */
+        abstract Runnable preparar(int thread);
+    }
+
+    /**
+     * Resultado da microcarga de um cenário.
+     */
+    private static final class Medicao {
+        long operacoes;
+        double vazao; // Operações por segundo.
+        double p50Micros;
+        double p99Micros;
+    }
+
+    private final double tolerancia;
+    private final double folgaMicros;
+    private final double escala;
+    private final int repeticoes;
+    private int falhas;
+
+    /**
+     * Construtor da classe SuiteDesempenho.
+     *
+     * @param tolerancia  Piora relativa aceita sobre o orçamento (0.25 = 25%).
+     * @param folgaMicros Piora absoluta do p99 sempre aceita, para operações de poucos µs.
+     * @param escala      Multiplicador do número de operações de cada microcarga.
+     * @param repeticoes  Quantas vezes cada microcarga é medida (vale a mediana de cada métrica).
+     */
+    public SuiteDesempenho(double tolerancia, double folgaMicros, double escala, int repeticoes) {
+        this.tolerancia = tolerancia;
+        this.folgaMicros = folgaMicros;
+        this.escala = escala;
+        this.repeticoes = Math.max(1, repeticoes);
+    }
+
+    /**
+     * Monta os cenários vinculados às user stories.
+     *
+     * @return Os cenários, na ordem de execução.
+     */
+    static List<Cenario> cenarios() {
+        List<Cenario> cenarios = new ArrayList<>();
+        cenarios.add(new Cenario("login", "login", 4, 25_000) {
+            private final SistemaAutenticacao sistema = sistemaComJogadores(2_000);
+
+            @Override
+            void verificar() {
+                Jogador jogador = sistema.buscar("jogador0@suite");
+                exigir(sistema.login("jogador0@suite", SENHA) == jogador, "login correto deve devolver o jogador");
+                exigir(falha(() -> sistema.login("jogador0@suite", "errada")), "senha incorreta deve ser recusada");
+                exigir(falha(() -> sistema.login("ninguem@suite", SENHA)), "email desconhecido deve ser recusado");
+            }
+
+            @Override
+            Runnable preparar(int thread) {
+                Random random = new Random(thread);
+                return () -> sistema.login("jogador" + random.nextInt(2_000) + "@suite", SENHA);
+            }
+        });
+        cenarios.add(new Cenario("tentativas_login", "tentativas_login", 4, 25_000) {
+            // Nunca atinge o atraso: mede o custo de recusar a senha e contar a falha.
+            private final SistemaAutenticacao sistema = new SistemaAutenticacao(Integer.MAX_VALUE, 0);
+
+            {
+                for (int i = 0; i < 2_000; i++) {
+                    sistema.cadastrar("jogador" + i + "@suite", SENHA, LocalDate.of(1990, 1, 1), "suite");
+                }
+            }
+
+            @Override
+            void verificar() {
+                long atraso = 40;
+                SistemaAutenticacao comAtraso = new SistemaAutenticacao(5, atraso);
+                comAtraso.cadastrar("alvo@suite", SENHA, LocalDate.of(1990, 1, 1), "alvo");
+                for (int i = 1; i < 5; i++) {
+                    exigir(millisLoginErrado(comAtraso) < atraso / 2, "a tentativa " + i + " não deve esperar");
+                }
+                exigir(millisLoginErrado(comAtraso) >= atraso, "a 5ª tentativa incorreta deve impor o atraso");
+                exigir(millisLoginErrado(comAtraso) >= 2 * atraso, "o atraso deve crescer a cada nova falha");
+                comAtraso.login("alvo@suite", SENHA);
+                exigir(millisLoginErrado(comAtraso) < atraso / 2, "um login correto deve zerar as tentativas");
+            }
+
+            @Override
+            Runnable preparar(int thread) {
+                Random random = new Random(thread);
+                return () -> falha(() -> sistema.login("jogador" + random.nextInt(2_000) + "@suite", "errada"));
+            }
+        });
+        cenarios.add(cenarioSlot("slot_aposta.facil", SlotFacil::new));
+        cenarios.add(cenarioSlot("slot_aposta.medio", SlotMedio::new));
+        cenarios.add(cenarioSlot("slot_aposta.dificil", SlotDificil::new));
+        cenarios.add(new Cenario("vitoria", "vitoria", 1, 200_000) {
+            private final CacaNiquel slot = new SlotMedio();
+            private final String[][][] tabuleiros = tabuleirosSorteados(slot, 1024);
+
+            @Override
+            void verificar() {
+                String[][] vitoria = tabuleiroSemPremio();
+                vitoria[1] = new String[] { "7", "*", "7", "7" }; // Linha de símbolos iguais com curinga.
+                exigir(variacaoSaldo(vitoria, 20_00) == 20_00L * (slot.multiplicadorPremio - 1),
+                        "a vitória deve pagar a aposta vezes o multiplicador");
+                exigir(variacaoSaldo(tabuleiroSemPremio(), 20_00) == -20_00, "sem prêmio a aposta deve ser perdida");
+                String[][] soCuringas = tabuleiroSemPremio();
+                soCuringas[0] = new String[] { "*", "*", "*", "*" };
+                exigir(!slot.verificarVitoria(soCuringas), "uma linha só de curingas não é vitória");
+            }
+
+            @Override
+            Runnable preparar(int thread) {
+                int[] i = { 0 };
+                return () -> slot.verificarVitoria(tabuleiros[i[0]++ & 1023]);
+            }
+        });
+        cenarios.add(new Cenario("bonus", "bonus", 1, 200_000) {
+            private final CacaNiquel slot = new SlotMedio();
+            private final String[][][] tabuleiros = tabuleirosSorteados(slot, 1024);
+
+            @Override
+            void verificar() {
+                String[][] sequencia = tabuleiroSemPremio();
+                sequencia[2] = new String[] { "2", "3", "4", "5" };
+                exigir(slot.verificarBonus(sequencia) && !slot.verificarVitoria(sequencia),
+                        "uma sequência estrita deve ser bônus");
+                exigir(variacaoSaldo(sequencia, 20_00) == 0, "o bônus deve devolver o valor da aposta");
+                String[][] decrescente = tabuleiroSemPremio();
+                decrescente[2] = new String[] { "K", "Q", "J", "T" };
+                exigir(slot.verificarBonus(decrescente), "uma sequência decrescente deve ser bônus");
+                String[][] comCuringa = tabuleiroSemPremio();
+                comCuringa[2] = new String[] { "2", "*", "4", "5" };
+                exigir(!slot.verificarBonus(comCuringa), "uma sequência com curinga não é bônus");
+            }
+
+            @Override
+            Runnable preparar(int thread) {
+                int[] i = { 0 };
+                return () -> slot.verificarBonus(tabuleiros[i[0]++ & 1023]);
+            }
+        });
+        cenarios.add(new Cenario("persistencia", "persistencia", 1, 20) {
+            private final SistemaAutenticacao sistema = sistemaComJogadores(5_000);
+
+            @Override
+            void verificar() {
+                Path arquivo = arquivoTemporario();
+                try {
+                    sistema.buscar("jogador1@suite").depositar(Dinheiro.deReais(123) + 45);
+                    sistema.salvarParaCsv(arquivo.toString());
+                    SistemaAutenticacao carregado = new SistemaAutenticacao();
+                    carregado.carregarDeCsv(arquivo.toString());
+                    for (int i = 0; i < 5_000; i++) {
+                        Jogador original = sistema.buscar("jogador" + i + "@suite");
+                        Jogador lido = carregado.buscar(original.getEmail());
+                        exigir(lido != null && lido.getSenhaHash().equals(original.getSenhaHash())
+                                && lido.getSaldoCentavos() == original.getSaldoCentavos()
+                                && lido.getDataDeNascimento().equals(original.getDataDeNascimento())
+                                && lido.getApelido().equals(original.getApelido())
+                                && lido.getStatusMaiorDeIdade() == original.getStatusMaiorDeIdade(),
+                                "o jogador " + original.getEmail() + " deve ser carregado como foi salvo");
+                    }
+                    exigir(carregado.buscar("jogador1@suite").autenticar(SENHA),
+                            "o jogador carregado deve autenticar com a senha original");
+                } finally {
+                    apagar(arquivo);
+                }
+            }
+
+            @Override
+            Runnable preparar(int thread) {
+                String caminho = arquivoTemporario().toString();
+                return () -> { // Um ciclo completo: salvar e carregar todos os jogadores.
+                    sistema.salvarParaCsv(caminho);
+                    new SistemaAutenticacao().carregarDeCsv(caminho);
+                };
+            }
+        });
+        // Saque e depósito passam pelo mesmo caminho do jogo: serviço assíncrono e livro-razão.
+        cenarios.add(new Cenario("saque", "saque", 4, 50_000) {
+            @Override
+            void verificar() {
+                Carteira carteira = new Carteira(Dinheiro.deReais(150));
+                exigir(carteira.sacar(Dinheiro.deReais(100), "s1") == Dinheiro.deReais(50),
+                        "o saque deve ser debitado do saldo");
+                exigir(carteira.sacar(Dinheiro.deReais(100), "s1") == Dinheiro.deReais(50),
+                        "um saque repetido com a mesma chave não é aplicado de novo");
+                exigir(falha(() -> carteira.sacar(Dinheiro.deReais(10), "s2")), "saldo abaixo de R$100 não pode sacar");
+                Carteira outra = new Carteira(Dinheiro.deReais(150));
+                exigir(falha(() -> outra.sacar(Dinheiro.deReais(200), "s1")), "o saque não pode exceder o saldo");
+                exigir(outra.saldo() == Dinheiro.deReais(150), "um saque recusado não altera o saldo");
+                carteira.conferirLivro();
+                outra.conferirLivro();
+            }
+
+            @Override
+            Runnable preparar(int thread) {
+                Carteira carteira = new Carteira(Long.MAX_VALUE / 2); // Uma por thread, como jogadores distintos.
+                long[] i = { 0 };
+                return () -> carteira.sacar(1, "s" + i[0]++);
+            }
+        });
+        cenarios.add(new Cenario("deposito", "deposito", 4, 50_000) {
+            @Override
+            void verificar() {
+                Carteira carteira = new Carteira(0);
+                exigir(carteira.depositar(Dinheiro.deReais(25) + 50, "d1") == 2550,
+                        "o depósito deve ser somado ao saldo");
+                exigir(carteira.depositar(Dinheiro.deReais(25) + 50, "d1") == 2550,
+                        "um depósito repetido com a mesma chave não é aplicado de novo");
+                carteira.conferirLivro();
+            }
+
+            @Override
+            Runnable preparar(int thread) {
+                Carteira carteira = new Carteira(0);
+                long[] i = { 0 };
+                return () -> carteira.depositar(1, "d" + i[0]++);
+            }
+        });
+        return cenarios;
+    }
+
+    /**
+     * Um jogador com conta aberta no livro-razão, movimentado pelo serviço assíncrono.
+     */
+    private static final class Carteira {
+        private final SistemaAutenticacao sistema = sistemaComJogadores(1);
+        private final LivroRazao livroRazao = new LivroRazao();
+        private final ServicoJogoAssincrono servico = new ServicoJogoAssincrono(sistema, livroRazao);
+        private final Jogador jogador = sistema.buscar("jogador0@suite");
+
+        Carteira(long saldoInicial) {
+            jogador.setSaldoCentavos(saldoInicial);
+            livroRazao.abrirConta(jogador);
+        }
+
+        long depositar(long valor, String chave) {
+            return servico.depositar(jogador.getEmail(), valor, chave).join();
+        }
+
+        long sacar(long valor, String chave) {
+            return servico.sacar(jogador.getEmail(), valor, chave).join();
+        }
+
+        long saldo() {
+            return servico.consultarSaldo(jogador.getEmail()).join();
+        }
+
+        void conferirLivro() {
+            exigir(livroRazao.reconstruirSaldo(jogador.getEmail()) == saldo(),
+                    "o livro-razão deve reconstruir o saldo da carteira");
+        }
+    }
+
+    /**
+     * Cenário de slot_aposta para uma dificuldade: rodadas com apostas válidas.
+     */
+    private static Cenario cenarioSlot(String chave, java.util.function.Supplier<CacaNiquel> fabrica) {
+        return new Cenario(chave, "slot_aposta", 4, 50_000) {
+            @Override
+            void verificar() {
+                CacaNiquel slot = fabrica.get();
+                slot.setSaida(new ExibidorSilencioso());
+                Jogador jogador = novoJogador();
+                jogador.setSaldoCentavos(Dinheiro.deReais(100_000));
+                for (long reais = slot.apostaMin; reais <= slot.apostaMax; reais++) {
+                    long antes = jogador.getSaldoCentavos();
+                    long aposta = Dinheiro.deReais(reais);
+                    Object[] resultado = slot.jogar(jogador, aposta);
+                    String[][] tabuleiro = (String[][]) resultado[0];
+                    exigir(tabuleiro.length == slot.tamanho && tabuleiro[0].length == slot.tamanho,
+                            "o tabuleiro deve ter o tamanho do slot");
+                    long premio = (Boolean) resultado[1] ? aposta * slot.multiplicadorPremio
+                            : (Boolean) resultado[2] ? aposta : 0;
+                    exigir(jogador.getSaldoCentavos() == antes - aposta + premio,
+                            "a aposta deve ser debitada e o prêmio creditado");
+                }
+                long antes = jogador.getSaldoCentavos();
+                exigir(falha(() -> slot.jogar(jogador, Dinheiro.deReais(slot.apostaMax + 1))),
+                        "aposta acima do máximo deve ser recusada");
+                exigir(slot.apostaMin <= 1 || falha(() -> slot.jogar(jogador, Dinheiro.deReais(slot.apostaMin - 1))),
+                        "aposta abaixo do mínimo deve ser recusada");
+                exigir(jogador.getSaldoCentavos() == antes, "uma aposta recusada não altera o saldo");
+            }
+
+            @Override
+            Runnable preparar(int thread) {
+                CacaNiquel slot = fabrica.get();
+                slot.setSaida(new ExibidorSilencioso());
+                Jogador jogador = novoJogador();
+                long aposta = Dinheiro.deReais(slot.apostaMin);
+                return () -> {
+                    if (jogador.getSaldoCentavos() < aposta) {
+                        jogador.depositar(Dinheiro.deReais(100_000));
+                    }
+                    slot.jogar(jogador, aposta);
+                };
+            }
+        };
+    }
+
+    /**
+     * Executa um cenário: verificação funcional, microcarga e comparação com o orçamento.
+     *
+     * @param cenario     O cenário.
+     * @param orcamentos  Os orçamentos; com calibragem, recebe as medições. Nulo para só medir,
+     *                    quando os orçamentos são de outro ambiente.
+     * @param calibrar    Verdadeiro para gravar as medições em vez de compará-las.
+     * @throws InterruptedException Se a execução for interrompida.
+     */
+    public void executar(Cenario cenario, Properties orcamentos, boolean calibrar) throws InterruptedException {
+        try {
+            cenario.verificar();
+        } catch (RuntimeException e) {
+            falhas++;
+            System.out.printf("%-22s FALHOU na verificação funcional: %s%n", cenario.chave, e.getMessage());
+            return;
+        }
+
+        int operacoes = (int) Math.max(1, cenario.operacoesPorThread * escala);
+        medir(cenario, Math.max(1, operacoes / 4)); // Aquecimento do JIT, descartado.
+        double[] vazoes = new double[repeticoes];
+        double[] p50s = new double[repeticoes];
+        double[] p99s = new double[repeticoes];
+        long totalOperacoes = 0;
+        for (int i = 0; i < repeticoes; i++) {
+            Medicao m = medir(cenario, operacoes);
+            vazoes[i] = m.vazao;
+            p50s[i] = m.p50Micros;
+            p99s[i] = m.p99Micros;
+            totalOperacoes = m.operacoes;
+        }
+        // Calibragem e comparação usam a mesma estatística: a mediana de cada métrica.
+        Medicao mediana = new Medicao();
+        mediana.operacoes = totalOperacoes;
+        mediana.vazao = mediana(vazoes);
+        mediana.p50Micros = mediana(p50s);
+        mediana.p99Micros = mediana(p99s);
+
+        String chaveVazao = cenario.chave + ".vazao.min";
+        String chaveP99 = cenario.chave + ".p99us.max";
+        String situacao;
+        if (calibrar) {
+            orcamentos.setProperty(chaveVazao, String.format(Locale.ROOT, "%.0f", mediana.vazao));
+            orcamentos.setProperty(chaveP99, String.format(Locale.ROOT, "%.3f", mediana.p99Micros));
+            situacao = "calibrado";
+        } else if (orcamentos == null) {
+            situacao = "medido (orçamento de outro ambiente)";
+        } else if (!orcamentos.containsKey(chaveVazao) || !orcamentos.containsKey(chaveP99)) {
+            falhas++; // Um cenário sem orçamento não está protegido contra regressões.
+            situacao = "FALHOU: sem orçamento (use --calibrar)";
+        } else {
+            double vazaoMinima = Double.parseDouble(orcamentos.getProperty(chaveVazao)) * (1 - tolerancia);
+            double orcamentoP99 = Double.parseDouble(orcamentos.getProperty(chaveP99));
+            double p99Maximo = Math.max(orcamentoP99 * (1 + tolerancia), orcamentoP99 + folgaMicros);
+            List<String> estouros = new ArrayList<>();
+            if (mediana.vazao < vazaoMinima) {
+                estouros.add(String.format(Locale.ROOT, "vazão abaixo de %.0f ops/s", vazaoMinima));
+            }
+            if (mediana.p99Micros > p99Maximo) {
+                estouros.add(String.format(Locale.ROOT, "p99 acima de %.1f µs", p99Maximo));
+            }
+            if (estouros.isEmpty()) {
+                situacao = "ok";
+            } else {
+                falhas++;
+                situacao = "REGRESSÃO: " + String.join(", ", estouros);
+            }
+        }
+        System.out.printf(Locale.ROOT, "%-22s %10d %14.0f %12.1f %12.1f  %s%n", cenario.chave, mediana.operacoes,
+                mediana.vazao, mediana.p50Micros, mediana.p99Micros, situacao);
+    }
+
+    /**
+     * Executa a microcarga de um cenário: todas as threads começam juntas e cada
+     * operação é cronometrada individualmente.
+     */
+    private static Medicao medir(Cenario cenario, int operacoesPorThread) throws InterruptedException {
+        HistogramaLatencia histograma = new HistogramaLatencia();
+        Runnable[] operacoes = new Runnable[cenario.threads];
+        for (int t = 0; t < cenario.threads; t++) {
+            operacoes[t] = cenario.preparar(t); // Preparação fora do tempo medido.
+        }
+        CountDownLatch largada = new CountDownLatch(1);
+        CountDownLatch fim = new CountDownLatch(cenario.threads);
+        for (int t = 0; t < cenario.threads; t++) {
+            Runnable operacao = operacoes[t];
+            Thread.ofPlatform().start(() -> {
+                try {
+                    largada.await();
+                    for (int i = 0; i < operacoesPorThread; i++) {
+                        long inicio = System.nanoTime();
+                        operacao.run();
+                        histograma.registrar(System.nanoTime() - inicio, true);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    fim.countDown();
+                }
+            });
+        }
+        long inicio = System.nanoTime();
+        largada.countDown();
+        fim.await();
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+
+        Medicao medicao = new Medicao();
+        medicao.operacoes = histograma.getTotal();
+        medicao.vazao = medicao.operacoes / segundos;
+        medicao.p50Micros = histograma.percentil(50) / 1000.0;
+        medicao.p99Micros = histograma.percentil(99) / 1000.0;
+        return medicao;
+    }
+
+    private static double mediana(double[] valores) {
+        double[] ordenados = valores.clone();
+        Arrays.sort(ordenados);
+        int meio = ordenados.length / 2;
+        return ordenados.length % 2 == 1 ? ordenados[meio] : (ordenados[meio - 1] + ordenados[meio]) / 2;
+    }
+
+    public int getFalhas() {
+        return falhas;
+    }
+
+    /**
+     * Descreve o ambiente da medição. Vazão e p99 absolutos só são comparáveis entre
+     * execuções com o mesmo ambiente, então ele é gravado junto com os orçamentos.
+     *
+     * @param escala O multiplicador do número de operações da execução.
+     * @return As chaves {@code ambiente.*} e seus valores.
+     */
+    static Map<String, String> ambiente(double escala) {
+        Map<String, String> ambiente = new LinkedHashMap<>();
+        ambiente.put("ambiente.processadores", String.valueOf(Runtime.getRuntime().availableProcessors()));
+        ambiente.put("ambiente.so", System.getProperty("os.name") + " " + System.getProperty("os.arch"));
+        ambiente.put("ambiente.jvm", System.getProperty("java.vm.name") + " " + System.getProperty("java.version"));
+        ambiente.put("ambiente.escala", String.valueOf(escala));
+        return ambiente;
+    }
+
+    /**
+     * Compara o ambiente atual com o gravado nos orçamentos.
+     *
+     * @param orcamentos Os orçamentos carregados.
+     * @param atual      O ambiente desta execução.
+     * @return As diferenças encontradas, vazia se os orçamentos valem para este ambiente.
+     */
+    static List<String> diferencasDeAmbiente(Properties orcamentos, Map<String, String> atual) {
+        List<String> diferencas = new ArrayList<>();
+        for (Map.Entry<String, String> item : atual.entrySet()) {
+            String gravado = orcamentos.getProperty(item.getKey());
+            if (!item.getValue().equals(gravado)) {
+                diferencas.add(item.getKey() + ": " + (gravado == null ? "não gravado" : gravado) + " -> "
+                        + item.getValue());
+            }
+        }
+        return diferencas;
+    }
+
+    /**
+     * Lê o título do primeiro cenário de um arquivo .feature.
+     *
+     * @param arquivo O arquivo.
+     * @return "Funcionalidade / Cenário", ou null se o arquivo não tiver um cenário.
+     * @throws IOException Se o arquivo não puder ser lido.
+     */
+    static String tituloFeature(Path arquivo) throws IOException {
+        String funcionalidade = null;
+        for (String linha : Files.readAllLines(arquivo)) {
+            String texto = linha.trim();
+            if (texto.startsWith("Funcionalidade:")) {
+                funcionalidade = texto.substring("Funcionalidade:".length()).trim();
+            } else if (texto.startsWith("Cenário:") && funcionalidade != null) {
+                return funcionalidade + " / " + texto.substring("Cenário:".length()).trim();
+            }
+        }
+        return null;
+    }
+
+    // Auxiliares dos cenários.
+
+    private static void exigir(boolean condicao, String regra) {
+        if (!condicao) {
+            throw new RuntimeException(regra);
+        }
+    }
+
+    private static boolean falha(Runnable acao) {
+        try {
+            acao.run();
+            return false;
+        } catch (RuntimeException e) {
+            return true;
+        }
+    }
+
+    private static Jogador novoJogador() {
+        return new Jogador("suite@suite", SENHA, LocalDate.of(1990, 1, 1), "suite");
+    }
+
+    private static SistemaAutenticacao sistemaComJogadores(int quantidade) {
+        SistemaAutenticacao sistema = new SistemaAutenticacao();
+        for (int i = 0; i < quantidade; i++) {
+            Jogador jogador = sistema.cadastrar("jogador" + i + "@suite", SENHA, LocalDate.of(1990, 1, 1).plusDays(i),
+                    "apelido" + i);
+            jogador.setSaldoCentavos(i * 137L); // Saldos variados, com centavos.
+        }
+        return sistema;
+    }
+
+    private static long millisLoginErrado(SistemaAutenticacao sistema) {
+        long inicio = System.nanoTime();
+        exigir(falha(() -> sistema.login("alvo@suite", "errada")), "senha incorreta deve ser recusada");
+        return (System.nanoTime() - inicio) / 1_000_000;
+    }
+
+    /**
+     * Um tabuleiro 4x4 sem vitória nem bônus em nenhuma linha, coluna ou diagonal.
+     */
+    private static String[][] tabuleiroSemPremio() {
+        return new String[][] {
+                { "A", "3", "5", "7" },
+                { "9", "J", "K", "2" },
+                { "4", "6", "8", "T" },
+                { "Q", "A", "3", "5" } };
+    }
+
+    /**
+     * Joga uma rodada no SlotMedio com um tabuleiro fixo.
+     *
+     * @return A variação do saldo do jogador.
+     */
+    private static long variacaoSaldo(String[][] tabuleiro, long aposta) {
+        CacaNiquel slot = new SlotMedio() {
+            @Override
+            protected String[][] gerarTabuleiro() {
+                return tabuleiro;
+            }
+        };
+        slot.setSaida(new ExibidorSilencioso());
+        Jogador jogador = novoJogador();
+        jogador.setSaldoCentavos(Dinheiro.deReais(1_000));
+        slot.jogar(jogador, aposta);
+        return jogador.getSaldoCentavos() - Dinheiro.deReais(1_000);
+    }
+
+    private static String[][][] tabuleirosSorteados(CacaNiquel slot, int quantidade) {
+        String[][][] tabuleiros = new String[quantidade][][];
+        for (int i = 0; i < quantidade; i++) {
+            tabuleiros[i] = slot.gerarTabuleiro();
+        }
+        return tabuleiros;
+    }
+
+    private static Path arquivoTemporario() {
+        try {
+            Path arquivo = Files.createTempFile("suite-desempenho", ".csv");
+            arquivo.toFile().deleteOnExit();
+            return arquivo;
+        } catch (IOException e) {
+            throw new RuntimeException("Não foi possível criar o arquivo temporário.", e);
+        }
+    }
+
+    private static void apagar(Path arquivo) {
+        try {
+            Files.deleteIfExists(arquivo);
+        } catch (IOException e) {
+            System.err.println("Erro ao apagar arquivo temporário: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Método principal da suíte.
+     *
+     * @param args Opções no formato --chave=valor.
+     * @throws IOException          Se os orçamentos ou as features não puderem ser lidos.
+     * @throws InterruptedException Se a execução for interrompida.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        double tolerancia = 0.25;
+        double folgaMicros = 1;
+        double escala = 1;
+        int repeticoes = 5;
+        boolean calibrar = false;
+        String arquivoOrcamentos = ARQUIVO_ORCAMENTOS;
+        Path diretorioFeatures = Paths.get("..", "user-story");
+        List<String> filtro = null;
+        for (String arg : args) {
+            String[] partes = arg.split("=", 2);
+            switch (partes[0]) {
+                case "--tolerancia":
+                    tolerancia = Double.parseDouble(partes[1]);
+                    break;
+                case "--folga-us":
+                    folgaMicros = Double.parseDouble(partes[1]);
+                    break;
+                case "--escala":
+                    escala = Double.parseDouble(partes[1]);
+                    break;
+                case "--repeticoes":
+                    repeticoes = Integer.parseInt(partes[1]);
+                    break;
+                case "--cenarios":
+                    filtro = Arrays.asList(partes[1].split(","));
+                    break;
+                case "--features":
+                    diretorioFeatures = Paths.get(partes[1]);
+                    break;
+                case "--orcamentos":
+                    arquivoOrcamentos = partes[1];
+                    break;
+                case "--calibrar":
+                    calibrar = true;
+                    break;
+                default:
+                    System.err.println("Opção desconhecida: " + arg);
+                    return;
+            }
+        }
+
+        Properties orcamentos = new Properties();
+        if (Files.exists(Paths.get(arquivoOrcamentos))) {
+            try (Reader reader = new FileReader(arquivoOrcamentos)) {
+                orcamentos.load(reader);
+            }
+        } else if (!calibrar) {
+            System.err.println("Arquivo de orçamentos não encontrado: " + arquivoOrcamentos + " (use --calibrar).");
+        }
+        Map<String, String> ambiente = ambiente(escala);
+        List<String> diferencas = orcamentos.isEmpty() ? Collections.emptyList()
+                : diferencasDeAmbiente(orcamentos, ambiente);
+        Properties comparados = orcamentos;
+        if (!diferencas.isEmpty()) {
+            if (calibrar) {
+                orcamentos.clear(); // Orçamentos de outro ambiente não se misturam com os novos.
+            } else {
+                comparados = null; // Números absolutos de outro ambiente não indicam regressão.
+                System.out.println("Orçamentos calibrados em outro ambiente; vazão e p99 não serão comparados ("
+                        + String.join("; ", diferencas) + "). Use --calibrar nesta máquina.");
+            }
+        }
+
+        // Cada cenário precisa da sua user story: um .feature removido ou renomeado quebra o vínculo.
+        Map<String, String> titulos = new LinkedHashMap<>();
+        TreeSet<String> semVinculo = new TreeSet<>();
+        try (Stream<Path> arquivos = Files.list(diretorioFeatures)) {
+            for (Path arquivo : (Iterable<Path>) arquivos.filter(p -> p.toString().endsWith(".feature"))::iterator) {
+                String nome = arquivo.getFileName().toString().replace(".feature", "");
+                titulos.put(nome, tituloFeature(arquivo));
+                semVinculo.add(nome);
+            }
+        }
+
+        SuiteDesempenho suite = new SuiteDesempenho(tolerancia, folgaMicros, escala, repeticoes);
+        System.out.printf("%-22s %10s %14s %12s %12s  %s%n", "Cenário", "Operações", "Vazão (ops/s)", "p50 (µs)",
+                "p99 (µs)", "Situação");
+        String featureAtual = null;
+        for (Cenario cenario : cenarios()) {
+            semVinculo.remove(cenario.feature);
+            if (filtro != null && !filtro.contains(cenario.chave) && !filtro.contains(cenario.feature)) {
+                continue;
+            }
+            String titulo = titulos.get(cenario.feature);
+            if (titulo == null) {
+                suite.falhas++;
+                System.out.printf("%-22s FALHOU: user-story/%s.feature ausente ou sem cenário%n", cenario.chave,
+                        cenario.feature);
+                continue;
+            }
+            if (!cenario.feature.equals(featureAtual)) {
+                System.out.println("# " + titulo);
+                featureAtual = cenario.feature;
+            }
+            suite.executar(cenario, comparados, calibrar);
+        }
+        if (!semVinculo.isEmpty()) {
+            System.out.println("Features sem cenário de desempenho: " + String.join(", ", semVinculo));
+        }
+
+        if (calibrar) {
+            ambiente.forEach(orcamentos::setProperty);
+            try (Writer writer = new FileWriter(arquivoOrcamentos)) {
+                writer.write("# Orçamentos da SuiteDesempenho: vazão mínima em ops/s e p99 máximo em µs.\n");
+                writer.write("# Gerados com --calibrar; a tolerância é aplicada na comparação.\n");
+                writer.write("# Valem só no ambiente das chaves ambiente.*; em outro, a suíte só mede.\n");
+                for (String chave : new TreeSet<>(orcamentos.stringPropertyNames())) {
+                    writer.write(chave + "=" + orcamentos.getProperty(chave) + "\n");
+                }
+            }
+            System.out.println("Orçamentos gravados em " + arquivoOrcamentos);
+        }
+        if (suite.getFalhas() > 0) {
+            System.out.printf("%d cenário(s) falharam.%n", suite.getFalhas());
+            System.exit(1); // Sinaliza a regressão para quem chamou (ex: um pipeline de CI).
+        }
+        if (comparados == null) {
+            System.out.println("Regras verificadas; desempenho só medido (orçamentos de outro ambiente).");
+            return;
+        }
+        System.out.println("Todos os cenários dentro do orçamento.");
+    }
+}
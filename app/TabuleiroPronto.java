@@ -0,0 +1,27 @@
+/**
+ * Tabuleiro já sorteado e avaliado, à espera de uma rodada.
+ */
+final class TabuleiroPronto {
+    private final String[][] tabuleiro;
+    private final boolean vitoria;
+    private final boolean bonus;
+
+    TabuleiroPronto(String[][] tabuleiro, boolean vitoria, boolean bonus) {
+        this.tabuleiro = tabuleiro;
+        this.vitoria = vitoria;
+        this.bonus = bonus;
+    }
+
+    // Getters para os atributos.
+    public String[][] getTabuleiro() {
+        return tabuleiro;
+    }
+
+    public boolean isVitoria() {
+        return vitoria;
+    }
+
+    public boolean isBonus() {
+        return bonus;
+    }
+}
@@ -0,0 +1,21 @@
+/**
+ * Tipos de operação registrados no livro-razão.
+ * Cada tipo sabe se credita ou debita o saldo do jogador.
+ */
+enum TipoLancamento {
+    ABERTURA(1), // Saldo existente no momento em que a conta entrou no livro-razão.
+    DEPOSITO(1),
+    SAQUE(-1),
+    APOSTA(-1),
+    RECOMPENSA(1);
+
+    private final int sinal; // +1 para crédito, -1 para débito.
+
+    TipoLancamento(int sinal) {
+        this.sinal = sinal;
+    }
+
+    public int getSinal() {
+        return sinal;
+    }
+}
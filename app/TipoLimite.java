@@ -0,0 +1,8 @@
+/**
+ * Grandezas que podem ser limitadas pelo jogador.
+ */
+enum TipoLimite {
+    PERDA, // Perda líquida (apostado menos prêmios), em centavos.
+    APOSTA, // Total apostado, em centavos.
+    TEMPO_SESSAO // Minutos com pelo menos uma aposta.
+}
@@ -0,0 +1,274 @@
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * Verificador em lote das rodadas gravadas por {@link SorteioVerificavel}.
+ * Confere que cada semente revelada corresponde ao seu compromisso e recalcula, em
+ * paralelo, o tabuleiro de cada rodada a partir das sementes e do nonce, comparando
+ * com o tabuleiro registrado. Rodadas cuja semente ainda não foi revelada ficam pendentes.
+ *
+ * <p>
+ * Uso:
+ * <ul>
+ * <li>{@code java VerificadorRodadas verificar <arquivo>}</li>
+ * <li>{@code java VerificadorRodadas conferir <sementeServidor> <sementeCliente> <nonce> <tamanho> <simbolos> <coringas>}</li>
+ * <li>{@code java VerificadorRodadas gerar <arquivo> <rodadas>} (registro sintético para medições)</li>
+ * </ul>
+ */
+public class VerificadorRodadas {
+    private static final int RODADAS_POR_TAREFA = 4096;
+    private static final int DIVERGENCIAS_EXIBIDAS = 10;
+
+    private final List<String> rodadas = new ArrayList<>();
+    private final Map<String, byte[]> sementesReveladas = new HashMap<>(); // Por compromisso.
+    private final LongAdder conferidas = new LongAdder();
+    private final LongAdder pendentes = new LongAdder();
+    private final List<String> divergencias = new ArrayList<>();
+    private long totalDivergentes;
+
+    /**
+     * Lê um registro, separando rodadas e sementes reveladas. Sementes que não
+     * correspondem ao compromisso informado são recusadas (as rodadas delas divergem),
+     * assim como revelações malformadas. Vale a primeira revelação correta de cada
+     * compromisso; revelações posteriores não a substituem.
+     *
+     * @param linhas As linhas do registro.
+     */
+    public VerificadorRodadas(List<String> linhas) {
+        HexFormat hex = HexFormat.of();
+        int numero = 0;
+        for (String linha : linhas) {
+            numero++;
+            if (linha.startsWith("R,")) {
+                String[] partes = linha.split(",", -1);
+                byte[] semente;
+                try {
+                    semente = partes.length == 3 && !partes[1].isEmpty() ? hex.parseHex(partes[2]) : null;
+                } catch (IllegalArgumentException e) {
+                    semente = null;
+                }
+                if (semente == null || semente.length == 0) {
+                    divergirRevelacao("Revelação malformada na linha " + numero + ": " + linha);
+                } else if (SorteioVerificavel.calcularCompromisso(semente).equals(partes[1])) {
+                    if (sementesReveladas.get(partes[1]) == null) {
+                        sementesReveladas.put(partes[1], semente); // Só a primeira revelação correta vale.
+                    }
+                } else {
+                    // Revelação falsa: sem uma correta, nada deste compromisso pode ser conferido.
+                    sementesReveladas.putIfAbsent(partes[1], null);
+                    divergirRevelacao("Semente revelada não corresponde ao compromisso " + partes[1]);
+                }
+            } else if (!linha.isEmpty()) {
+                rodadas.add(linha);
+            }
+        }
+    }
+
+    /**
+     * Recalcula todas as rodadas em paralelo.
+     */
+    public void verificar() {
+        int tarefas = (rodadas.size() + RODADAS_POR_TAREFA - 1) / RODADAS_POR_TAREFA;
+        IntStream.range(0, tarefas).parallel().forEach(t -> verificarTrecho(t * RODADAS_POR_TAREFA,
+                Math.min(rodadas.size(), (t + 1) * RODADAS_POR_TAREFA)));
+    }
+
+    private void verificarTrecho(int inicio, int fim) {
+        // Cada tarefa tem seus próprios fluxos e motores: Mac não é seguro entre threads.
+        String compromissoAtual = null;
+        FluxoHmac fluxo = null;
+        boolean revelada = false;
+        Map<Integer, MotorGiros> motores = new HashMap<>();
+        byte[] tabuleiro = new byte[0];
+        long ok = 0;
+        long semSemente = 0;
+        int[] virgulas = new int[6];
+        for (int i = inicio; i < fim; i++) {
+            String linha = rodadas.get(i);
+            // Localiza os campos sem criar substrings: esta é a parte quente da verificação.
+            int campos = 0;
+            for (int c = linha.indexOf(','); c >= 0 && campos < 6; c = linha.indexOf(',', c + 1)) {
+                virgulas[campos++] = c;
+            }
+            if (campos != 6 || linha.indexOf(',', virgulas[5] + 1) >= 0) {
+                divergir(i, linha, "linha malformada");
+                continue;
+            }
+            // Rodadas da mesma semente costumam vir em sequência.
+            if (compromissoAtual == null || compromissoAtual.length() != virgulas[0]
+                    || !linha.startsWith(compromissoAtual)) {
+                compromissoAtual = linha.substring(0, virgulas[0]);
+                revelada = sementesReveladas.containsKey(compromissoAtual);
+                byte[] semente = sementesReveladas.get(compromissoAtual);
+                fluxo = semente == null ? null : new FluxoHmac(semente);
+            }
+            if (!revelada) {
+                semSemente++;
+                continue;
+            }
+            if (fluxo == null) {
+                divergir(i, linha, "semente revelada inválida");
+                continue;
+            }
+            int tamanho;
+            int simbolos;
+            int coringas;
+            long nonce;
+            try {
+                tamanho = Integer.parseInt(linha, virgulas[0] + 1, virgulas[1], 10);
+                simbolos = Integer.parseInt(linha, virgulas[1] + 1, virgulas[2], 10);
+                coringas = Integer.parseInt(linha, virgulas[2] + 1, virgulas[3], 10);
+                nonce = Long.parseLong(linha, virgulas[4] + 1, virgulas[5], 10);
+            } catch (NumberFormatException e) {
+                divergir(i, linha, "linha malformada");
+                continue;
+            }
+            if (tamanho < 2 || tamanho > 8 || simbolos < 2 || simbolos > CacaNiquel.SIMBOLOS.size() || coringas < 0
+                    || coringas > tamanho * tamanho || virgulas[4] - virgulas[3] - 1 > 64) {
+                divergir(i, linha, "parâmetros inválidos");
+                continue;
+            }
+            MotorGiros motor = motores.computeIfAbsent((tamanho << 16) | (simbolos << 8) | coringas,
+                    k -> new MotorGiros(tamanho, simbolos, coringas));
+            if (tabuleiro.length != tamanho * tamanho) {
+                tabuleiro = motor.novoTabuleiro();
+            }
+            fluxo.iniciarRodada(linha, virgulas[3] + 1, virgulas[4], nonce);
+            motor.sortear(fluxo, tabuleiro);
+            if (confere(tabuleiro, linha, virgulas[5] + 1)) {
+                ok++;
+            } else {
+                divergir(i, linha, "esperado " + SorteioVerificavel.paraTexto(tabuleiro));
+            }
+        }
+        conferidas.add(ok);
+        pendentes.add(semSemente);
+    }
+
+    private static boolean confere(byte[] tabuleiro, String linha, int inicio) {
+        if (linha.length() - inicio != tabuleiro.length) {
+            return false;
+        }
+        for (int i = 0; i < tabuleiro.length; i++) {
+            char esperado = tabuleiro[i] == MotorGiros.CORINGA ? '*'
+                    : CacaNiquel.SIMBOLOS.get(tabuleiro[i]).charAt(0);
+            if (linha.charAt(inicio + i) != esperado) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private synchronized void divergir(int indice, String linha, String motivo) {
+        totalDivergentes++;
+        if (divergencias.size() < DIVERGENCIAS_EXIBIDAS) {
+            divergencias.add("Rodada " + (indice + 1) + " (" + motivo + "): " + linha);
+        }
+    }
+
+    private void divergirRevelacao(String motivo) {
+        totalDivergentes++;
+        if (divergencias.size() < DIVERGENCIAS_EXIBIDAS) {
+            divergencias.add(motivo);
+        }
+    }
+
+    public int getTotalRodadas() {
+        return rodadas.size();
+    }
+
+    public long getConferidas() {
+        return conferidas.sum();
+    }
+
+    public long getPendentes() {
+        return pendentes.sum();
+    }
+
+    public synchronized long getDivergentes() {
+        return totalDivergentes;
+    }
+
+    public synchronized List<String> getDivergencias() {
+        return new ArrayList<>(divergencias);
+    }
+
+    /**
+     * Gera um registro sintético com várias sementes de servidor, para medir a verificação.
+     */
+    private static void gerar(String arquivo, long quantidade) throws IOException {
+        int[][] slots = { { 3, 13, 1 }, { 4, 13, 2 }, { 5, 13, 3 } }; // Tamanho, símbolos, curingas.
+        MotorGiros[] motores = new MotorGiros[slots.length];
+        byte[][] tabuleiros = new byte[slots.length][];
+        for (int i = 0; i < slots.length; i++) {
+            motores[i] = new MotorGiros(slots[i][0], slots[i][1], slots[i][2]);
+            tabuleiros[i] = motores[i].novoTabuleiro();
+        }
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(arquivo), 1 << 16)) {
+            SorteioVerificavel sorteio = new SorteioVerificavel(SorteioVerificavel.novaSementeCliente(), writer);
+            for (long i = 0; i < quantidade; i++) {
+                int s = (int) (i % slots.length);
+                sorteio.sortear(motores[s], tabuleiros[s]);
+                if ((i + 1) % 100_000 == 0) {
+                    sorteio.revelar(); // Troca a semente do servidor periodicamente.
+                }
+            }
+            sorteio.revelar();
+        }
+    }
+
+    /**
+     * Método principal do verificador.
+     *
+     * @param args O modo e seus argumentos.
+     * @throws IOException Se o arquivo não puder ser lido ou gravado.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 3 && args[0].equals("gerar")) {
+            gerar(args[1], Long.parseLong(args[2]));
+            System.out.printf("%s rodadas gravadas em %s%n", args[2], args[1]);
+            return;
+        }
+        if (args.length == 7 && args[0].equals("conferir")) {
+            byte[] semente = HexFormat.of().parseHex(args[1]);
+            MotorGiros motor = new MotorGiros(Integer.parseInt(args[4]), Integer.parseInt(args[5]),
+                    Integer.parseInt(args[6]));
+            byte[] tabuleiro = motor.novoTabuleiro();
+            SorteioVerificavel.derivar(new FluxoHmac(semente), args[2], Long.parseLong(args[3]), motor, tabuleiro);
+            System.out.println("Compromisso: " + SorteioVerificavel.calcularCompromisso(semente));
+            String texto = SorteioVerificavel.paraTexto(tabuleiro);
+            for (int i = 0; i < texto.length(); i += motor.getTamanho()) {
+                System.out.println(texto.substring(i, i + motor.getTamanho()).replace("", " ").trim());
+            }
+            return;
+        }
+        if (args.length != 2 || !args[0].equals("verificar")) {
+            System.err.println("Uso: java VerificadorRodadas verificar <arquivo> | gerar <arquivo> <rodadas> | "
+                    + "conferir <sementeServidor> <sementeCliente> <nonce> <tamanho> <simbolos> <coringas>");
+            return;
+        }
+
+        VerificadorRodadas verificador = new VerificadorRodadas(Files.readAllLines(Paths.get(args[1])));
+        long inicio = System.nanoTime();
+        verificador.verificar();
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        System.out.printf("Rodadas: %d  conferidas: %d  divergentes: %d  pendentes (semente não revelada): %d%n",
+                verificador.getTotalRodadas(), verificador.getConferidas(), verificador.getDivergentes(),
+                verificador.getPendentes());
+        System.out.printf("Tempo: %.2f s (%.2f milhões de rodadas/s)%n", segundos,
+                verificador.getTotalRodadas() / segundos / 1e6);
+        for (String divergencia : verificador.getDivergencias()) {
+            System.out.println(divergencia);
+        }
+    }
+}
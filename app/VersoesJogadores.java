@@ -0,0 +1,181 @@
+import java.util.Iterator;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Controle de versões dos jogadores de um {@link SistemaAutenticacao}, que permite abrir
+ * instantâneos consistentes de todos os jogadores sem travar as threads de jogo.
+ *
+ * <p>
+ * Toda alteração de um jogador acontece dentro de uma seção de escrita ({@link #entrar()}
+ * e {@link #sair(long)}) e grava um novo {@link EstadoJogador} marcado com a versão
+ * global corrente, trocado por CAS. Abrir um instantâneo apenas avança a versão global
+ * (O(1)) e espera terminarem as poucas escritas já iniciadas na versão anterior; o
+ * instantâneo enxerga, de cada jogador, o estado mais recente com versão menor ou igual
+ * à sua. As escritas nunca esperam: só guardam o estado substituído quando algum
+ * instantâneo aberto ainda precisa dele.
+ */
+class VersoesJogadores {
+    private static final int FAIXAS = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1) * 2;
+    private static final int ESPACAMENTO = 8; // Um contador por linha de cache.
+    private static final int LIMITE_REMOVIDOS = 1024; // Removidos acumulados antes de uma varredura sem instantâneos.
+
+    private final AtomicLong versaoAtual = new AtomicLong(1); // Jogadores avulsos ficam na versão 0.
+    // Escritas em andamento por paridade da versão, em faixas por thread (a mesma thread
+    // sempre usa a mesma faixa, então a soma nunca zera com uma escrita em andamento).
+    private final AtomicLongArray emAndamento = new AtomicLongArray(2 * FAIXAS * ESPACAMENTO);
+    private final ConcurrentLinkedQueue<Jogador> membros = new ConcurrentLinkedQueue<>(); // Na ordem de entrada.
+    private final TreeMap<Long, Integer> instantaneosAbertos = new TreeMap<>(); // Versão -> quantidade.
+    private volatile long maiorAberto = -1; // Versão do instantâneo aberto mais recente, ou -1.
+    private volatile long menorAberto = -1; // Versão do instantâneo aberto mais antigo, ou -1.
+    private int removidosPendentes;
+
+    /**
+     * Inicia uma seção de escrita. Nunca bloqueia.
+     *
+     * @return A versão das escritas desta seção, a ser passada para {@link #sair(long)}.
+     */
+    long entrar() {
+        while (true) {
+            long versao = versaoAtual.get();
+            int indice = indice(versao);
+            emAndamento.incrementAndGet(indice);
+            if (versaoAtual.get() == versao) {
+                return versao;
+            }
+            emAndamento.decrementAndGet(indice); // Um instantâneo avançou a versão: usa a nova.
+        }
+    }
+
+    /**
+     * Termina uma seção de escrita.
+     *
+     * @param versao A versão devolvida por {@link #entrar()}.
+     */
+    void sair(long versao) {
+        emAndamento.decrementAndGet(indice(versao));
+    }
+
+    /**
+     * Verifica se um estado substituído ainda precisa ser guardado.
+     *
+     * @param versao A versão do estado substituído.
+     * @return Verdadeiro se algum instantâneo aberto pode precisar dele.
+     */
+    boolean necessario(long versao) {
+        return maiorAberto >= versao;
+    }
+
+    /**
+     * Corta a cadeia de estados antigos logo abaixo do primeiro estado que o instantâneo
+     * aberto mais antigo enxerga: nenhum instantâneo aberto chega além dele.
+     *
+     * @param anterior O estado mais recente da cadeia a preservar.
+     * @return A cadeia aparada, ou null se nenhum instantâneo estiver aberto.
+     */
+    EstadoJogador aparar(EstadoJogador anterior) {
+        long menor = menorAberto;
+        if (menor < 0) {
+            return null;
+        }
+        EstadoJogador e = anterior;
+        while (e != null && e.versao > menor) {
+            e = e.anterior;
+        }
+        if (e != null && e.anterior != null) {
+            e.anterior = null;
+        }
+        return anterior;
+    }
+
+    /**
+     * Inclui um jogador recém-vinculado nos próximos instantâneos. Deve ser chamado
+     * dentro da seção de escrita em que o jogador foi vinculado.
+     *
+     * @param jogador O jogador.
+     */
+    void incluir(Jogador jogador) {
+        membros.add(jogador);
+    }
+
+    /**
+     * Conta um jogador removido, que poderá deixar a lista de membros quando nenhum
+     * instantâneo aberto o enxergar mais.
+     */
+    synchronized void contarRemovido() {
+        removidosPendentes++;
+        if (instantaneosAbertos.isEmpty() && removidosPendentes >= LIMITE_REMOVIDOS) {
+            varrer(Long.MAX_VALUE);
+        }
+    }
+
+    /**
+     * Abre um instantâneo de todos os jogadores na versão atual. Custa O(1): avança a
+     * versão global e espera apenas as escritas já em andamento.
+     *
+     * @return O instantâneo, que deve ser fechado após o uso.
+     */
+    synchronized InstantaneoJogadores abrir() {
+        long versao = versaoAtual.get();
+        instantaneosAbertos.merge(versao, 1, Integer::sum);
+        maiorAberto = versao; // Publicado antes de a versão avançar: as escritas seguintes o enxergam.
+        menorAberto = instantaneosAbertos.firstKey();
+        versaoAtual.set(versao + 1);
+        while (emAndamentoNaVersao(versao)) {
+            Thread.yield(); // Escritas de poucos nanossegundos; cede a CPU caso a escritora tenha sido preemptada.
+        }
+        return new InstantaneoJogadores(this, versao);
+    }
+
+    /**
+     * Fecha um instantâneo, liberando as versões antigas que só ele usava.
+     *
+     * @param versao A versão do instantâneo.
+     */
+    synchronized void fechar(long versao) {
+        if (instantaneosAbertos.merge(versao, -1, Integer::sum) == 0) {
+            instantaneosAbertos.remove(versao);
+        }
+        maiorAberto = instantaneosAbertos.isEmpty() ? -1 : instantaneosAbertos.lastKey();
+        menorAberto = instantaneosAbertos.isEmpty() ? -1 : instantaneosAbertos.firstKey();
+        if (removidosPendentes > 0) {
+            varrer(instantaneosAbertos.isEmpty() ? Long.MAX_VALUE : instantaneosAbertos.firstKey());
+        }
+    }
+
+    Iterator<Jogador> membros() {
+        return membros.iterator();
+    }
+
+    /**
+     * Tira da lista de membros os jogadores removidos que nenhum instantâneo enxerga.
+     *
+     * @param menorAberto A versão do instantâneo aberto mais antigo.
+     */
+    private void varrer(long menorAberto) {
+        for (Iterator<Jogador> it = membros.iterator(); it.hasNext();) {
+            EstadoJogador estado = it.next().getEstado();
+            if (estado.removido && estado.versao <= menorAberto) {
+                it.remove();
+                removidosPendentes--;
+            }
+        }
+    }
+
+    private boolean emAndamentoNaVersao(long versao) {
+        int base = (int) (versao & 1) * FAIXAS * ESPACAMENTO;
+        for (int i = 0; i < FAIXAS; i++) {
+            if (emAndamento.get(base + i * ESPACAMENTO) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int indice(long versao) {
+        int faixa = (int) (Thread.currentThread().threadId() & (FAIXAS - 1));
+        return ((int) (versao & 1) * FAIXAS + faixa) * ESPACAMENTO;
+    }
+}